@@ -4,6 +4,7 @@ module JTableFX
   requires transitive javafx.graphics;
 
   requires javafx.controls;
+  requires jdk.jfr;
 
   exports rjc.table.demo;
   exports rjc.table.undo;
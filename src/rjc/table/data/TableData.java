@@ -18,6 +18,10 @@
 
 package rjc.table.data;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import javafx.application.Platform;
 import rjc.table.Utils;
 import rjc.table.signal.ISignal;
 import rjc.table.signal.ObservableInteger;
@@ -35,12 +39,15 @@ public class TableData implements ISignal
 
   public enum Signal
   {
-    CELL_VALUE_CHANGED, ROW_VALUES_CHANGED, COLUMN_VALUES_CHANGED, TABLE_VALUES_CHANGED
+    CELL_VALUE_CHANGED, ROW_VALUES_CHANGED, COLUMN_VALUES_CHANGED, TABLE_VALUES_CHANGED, REGION_VALUES_CHANGED
   }
 
   // column & row index starts at 0 for table body, index of -1 is for header
   final static public int HEADER = -1;
 
+  // rows of values read on FX thread at a time for other threads, so FX thread never busy for long
+  final static private int HAND_OFF_ROWS = 256;
+
   /*************************************** getColumnCount ****************************************/
   public int getColumnCount()
   {
@@ -102,6 +109,59 @@ public class TableData implements ISignal
     return "{" + dataColumn + "," + dataRow + "}";
   }
 
+  /****************************************** isLoaded *******************************************/
+  public boolean isLoaded( int dataColumn, int dataRow )
+  {
+    // return true if cell value available now (override for data loaded asynchronously, cells drawn as placeholder)
+    return true;
+  }
+
+  /****************************************** getValues ******************************************/
+  public Object[][] getValues( int[] dataColumns, int[] dataRows )
+  {
+    // return cell values indexed by row then column, may be called from any thread such as when exporting,
+    // other threads waiting while getValue called on FX thread in slices of rows (override if getValue is
+    // safe to call off FX thread, or a block of values can be read more quickly)
+    var values = new Object[dataRows.length][dataColumns.length];
+    if ( Platform.isFxApplicationThread() )
+    {
+      readValues( dataColumns, dataRows, values, 0, dataRows.length );
+      return values;
+    }
+
+    for ( int from = 0; from < dataRows.length; from += HAND_OFF_ROWS )
+    {
+      int start = from;
+      int end = Math.min( from + HAND_OFF_ROWS, dataRows.length );
+      var task = new FutureTask<Void>( () -> readValues( dataColumns, dataRows, values, start, end ), null );
+      Platform.runLater( task );
+      try
+      {
+        task.get();
+      }
+      catch ( InterruptedException exception )
+      {
+        task.cancel( false );
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException( "Interrupted reading values", exception );
+      }
+      catch ( ExecutionException exception )
+      {
+        throw new IllegalStateException( "Failed reading values", exception.getCause() );
+      }
+    }
+    return values;
+  }
+
+  /***************************************** readValues ******************************************/
+  private void readValues( int[] dataColumns, int[] dataRows, Object[][] values, int from, int to )
+  {
+    // read cell values of rows from up to to (exclusive) into values array
+    for ( int row = from; row < to; row++ )
+      for ( int column = 0; column < dataColumns.length; column++ )
+        values[row][column] = getValue( dataColumns[column], dataRows[row] );
+  }
+
   /****************************************** setValue *******************************************/
   final public String setValue( int dataColumn, int dataRow, Object newValue )
   {
@@ -178,6 +238,13 @@ public class TableData implements ISignal
     signal( Signal.TABLE_VALUES_CHANGED );
   }
 
+  /************************************* signalRegionChanged *************************************/
+  public void signalRegionChanged( int minDataColumn, int maxDataColumn, int minDataRow, int maxDataRow )
+  {
+    // signal that values in rectangle of cells have changed (usually to trigger redraw of visible cells in it)
+    signal( Signal.REGION_VALUES_CHANGED, minDataColumn, maxDataColumn, minDataRow, maxDataRow );
+  }
+
   /****************************************** toString *******************************************/
   @Override
   public String toString()
@@ -0,0 +1,425 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import rjc.table.data.types.Date;
+import rjc.table.data.types.Time;
+
+/*************************************************************************************************/
+/************** Table data stored in primitive-typed column vectors without boxing ***************/
+/*************************************************************************************************/
+
+public class TableDataColumnar extends TableData implements IDataText
+{
+  // types of column vector, dates stored as epoch-day ints, times as day-millisecond ints, text dictionary encoded
+  public enum ColumnType
+  {
+    INTEGER, LONG, DOUBLE, DATE, TIME, TEXT
+  }
+
+  // distinct strings of a text column, so each cell only stores an int code
+  private static class Dictionary
+  {
+    private ArrayList<String>        m_strings = new ArrayList<>();
+    private HashMap<String, Integer> m_codes   = new HashMap<>();
+
+    /****************************************** encode *******************************************/
+    private int encode( String text )
+    {
+      // return code for text, adding to dictionary if new
+      Integer code = m_codes.get( text );
+      if ( code == null )
+      {
+        code = m_strings.size();
+        m_strings.add( text );
+        m_codes.put( text, code );
+      }
+      return code;
+    }
+  }
+
+  // values marking a missing (null) cell value in each vector type
+  final static public int    NULL_INT    = Integer.MIN_VALUE;
+  final static public long   NULL_LONG   = Long.MIN_VALUE;
+  final static public double NULL_DOUBLE = Double.NaN;
+
+  private String[]           m_names;        // column names shown in column headers
+  private ColumnType[]       m_types;        // type of each column
+  private Object[]           m_vectors;      // int[], long[] or double[] vector holding each column's values
+  private Dictionary[]       m_dictionaries; // dictionary for each text column (null for other columns)
+  private int                m_capacity;     // length of vectors
+
+  /***************************************** constructor *****************************************/
+  public TableDataColumnar( String[] names, ColumnType[] types, int rowCount )
+  {
+    // create table with specified column names & types, and all cell values missing
+    if ( names.length != types.length )
+      throw new IllegalArgumentException( "names=" + names.length + " types=" + types.length );
+
+    m_names = names.clone();
+    m_types = types.clone();
+    m_vectors = new Object[types.length];
+    m_dictionaries = new Dictionary[types.length];
+    for ( int column = 0; column < types.length; column++ )
+    {
+      m_vectors[column] = newVector( types[column], rowCount );
+      if ( types[column] == ColumnType.TEXT )
+        m_dictionaries[column] = new Dictionary();
+    }
+    m_capacity = rowCount;
+
+    setColumnCount( types.length );
+    setRowCount( rowCount );
+  }
+
+  /*************************************** setColumnCount ****************************************/
+  @Override
+  public void setColumnCount( int columnCount )
+  {
+    // number of columns is fixed by column types
+    if ( columnCount != m_types.length )
+      throw new UnsupportedOperationException( "Columns fixed at " + m_types.length );
+    super.setColumnCount( columnCount );
+  }
+
+  /***************************************** setRowCount *****************************************/
+  @Override
+  public void setRowCount( int rowCount )
+  {
+    // grow vectors if needed (by at least half to limit copying), new rows having missing values
+    if ( rowCount > m_capacity )
+    {
+      int capacity = (int) Math.min( Integer.MAX_VALUE - 8L, Math.max( rowCount, m_capacity + ( m_capacity >> 1 ) ) );
+      for ( int column = 0; column < m_types.length; column++ )
+        m_vectors[column] = growVector( m_types[column], m_vectors[column], m_capacity, capacity );
+      m_capacity = capacity;
+    }
+
+    // clear values of rows removed so they are missing if rows added again
+    int oldCount = Math.min( getRowCount(), m_capacity );
+    if ( rowCount < oldCount )
+      for ( int column = 0; column < m_types.length; column++ )
+        fillNull( m_types[column], m_vectors[column], rowCount, oldCount );
+
+    super.setRowCount( rowCount );
+  }
+
+  /**************************************** getColumnType ****************************************/
+  public ColumnType getColumnType( int dataColumn )
+  {
+    // return type of column vector
+    return m_types[dataColumn];
+  }
+
+  /**************************************** getColumnName ****************************************/
+  public String getColumnName( int dataColumn )
+  {
+    // return name of column
+    return m_names[dataColumn];
+  }
+
+  /******************************************* isNull ********************************************/
+  public boolean isNull( int dataColumn, int dataRow )
+  {
+    // return true if cell value is missing
+    return switch ( m_types[dataColumn] )
+    {
+      case LONG -> ( (long[]) m_vectors[dataColumn] )[dataRow] == NULL_LONG;
+      case DOUBLE -> Double.isNaN( ( (double[]) m_vectors[dataColumn] )[dataRow] );
+      default -> ( (int[]) m_vectors[dataColumn] )[dataRow] == NULL_INT;
+    };
+  }
+
+  /******************************************* getInt ********************************************/
+  public int getInt( int dataColumn, int dataRow )
+  {
+    // return cell value of integer, date (epoch-day), time (day-milliseconds) or text (dictionary code) column
+    if ( m_types[dataColumn] == ColumnType.LONG || m_types[dataColumn] == ColumnType.DOUBLE )
+      throw new IllegalArgumentException( "Column " + dataColumn + " is " + m_types[dataColumn] + " not int" );
+    return ( (int[]) m_vectors[dataColumn] )[dataRow];
+  }
+
+  /******************************************* getLong *******************************************/
+  public long getLong( int dataColumn, int dataRow )
+  {
+    // return cell value of long or integer column
+    if ( m_types[dataColumn] == ColumnType.LONG )
+      return ( (long[]) m_vectors[dataColumn] )[dataRow];
+
+    int value = ( (int[]) m_vectors[checkType( dataColumn, ColumnType.INTEGER )] )[dataRow];
+    return value == NULL_INT ? NULL_LONG : value;
+  }
+
+  /****************************************** getDouble ******************************************/
+  public double getDouble( int dataColumn, int dataRow )
+  {
+    // return cell value of double, long or integer column as double (NaN if missing)
+    return switch ( m_types[dataColumn] )
+    {
+      case DOUBLE -> ( (double[]) m_vectors[dataColumn] )[dataRow];
+      case LONG ->
+      {
+        long value = ( (long[]) m_vectors[dataColumn] )[dataRow];
+        yield value == NULL_LONG ? NULL_DOUBLE : value;
+      }
+      default ->
+      {
+        int value = ( (int[]) m_vectors[checkType( dataColumn, ColumnType.INTEGER )] )[dataRow];
+        yield value == NULL_INT ? NULL_DOUBLE : value;
+      }
+    };
+  }
+
+  /***************************************** getEpochDay *****************************************/
+  public int getEpochDay( int dataColumn, int dataRow )
+  {
+    // return cell value of date column as epoch-day (NULL_INT if missing)
+    return ( (int[]) m_vectors[checkType( dataColumn, ColumnType.DATE )] )[dataRow];
+  }
+
+  /************************************* getDayMilliseconds **************************************/
+  public int getDayMilliseconds( int dataColumn, int dataRow )
+  {
+    // return cell value of time column as milliseconds from start of day (NULL_INT if missing)
+    return ( (int[]) m_vectors[checkType( dataColumn, ColumnType.TIME )] )[dataRow];
+  }
+
+  /****************************************** getString ******************************************/
+  public String getString( int dataColumn, int dataRow )
+  {
+    // return cell value of text column (null if missing)
+    int code = ( (int[]) m_vectors[checkType( dataColumn, ColumnType.TEXT )] )[dataRow];
+    return code == NULL_INT ? null : m_dictionaries[dataColumn].m_strings.get( code );
+  }
+
+  /******************************************* getText *******************************************/
+  @Override
+  public String getText( int dataColumn, int dataRow )
+  {
+    // return cell value formatted as text without boxing primitive value (null if missing)
+    if ( isNull( dataColumn, dataRow ) )
+      return null;
+
+    return switch ( m_types[dataColumn] )
+    {
+      case INTEGER -> Integer.toString( getInt( dataColumn, dataRow ) );
+      case LONG -> Long.toString( getLong( dataColumn, dataRow ) );
+      case DOUBLE -> Double.toString( getDouble( dataColumn, dataRow ) );
+      case DATE -> new Date( getInt( dataColumn, dataRow ) ).toString();
+      case TIME -> Time.fromMilliseconds( getInt( dataColumn, dataRow ) ).toString();
+      case TEXT -> getString( dataColumn, dataRow );
+    };
+  }
+
+  /******************************************* setInt ********************************************/
+  public void setInt( int dataColumn, int dataRow, int value )
+  {
+    // set cell value of integer, date (epoch-day) or time (day-milliseconds) column without signalling
+    if ( m_types[dataColumn] == ColumnType.TEXT )
+      throw new IllegalArgumentException( "Text column " + dataColumn );
+    if ( m_types[dataColumn] == ColumnType.LONG )
+      ( (long[]) m_vectors[dataColumn] )[dataRow] = value == NULL_INT ? NULL_LONG : value;
+    else if ( m_types[dataColumn] == ColumnType.DOUBLE )
+      ( (double[]) m_vectors[dataColumn] )[dataRow] = value == NULL_INT ? NULL_DOUBLE : value;
+    else
+      ( (int[]) m_vectors[dataColumn] )[dataRow] = value;
+  }
+
+  /******************************************* setLong *******************************************/
+  public void setLong( int dataColumn, int dataRow, long value )
+  {
+    // set cell value of long or double column without signalling
+    if ( m_types[dataColumn] == ColumnType.DOUBLE )
+      ( (double[]) m_vectors[dataColumn] )[dataRow] = value == NULL_LONG ? NULL_DOUBLE : value;
+    else
+      ( (long[]) m_vectors[checkType( dataColumn, ColumnType.LONG )] )[dataRow] = value;
+  }
+
+  /****************************************** setDouble ******************************************/
+  public void setDouble( int dataColumn, int dataRow, double value )
+  {
+    // set cell value of double column without signalling
+    ( (double[]) m_vectors[checkType( dataColumn, ColumnType.DOUBLE )] )[dataRow] = value;
+  }
+
+  /****************************************** setString ******************************************/
+  public void setString( int dataColumn, int dataRow, String value )
+  {
+    // set cell value of text column without signalling
+    Dictionary dictionary = m_dictionaries[checkType( dataColumn, ColumnType.TEXT )];
+    ( (int[]) m_vectors[dataColumn] )[dataRow] = value == null ? NULL_INT : dictionary.encode( value );
+  }
+
+  /******************************************* setNull *******************************************/
+  public void setNull( int dataColumn, int dataRow )
+  {
+    // set cell value missing without signalling
+    fillNull( m_types[dataColumn], m_vectors[dataColumn], dataRow, dataRow + 1 );
+  }
+
+  /****************************************** getValue *******************************************/
+  @Override
+  public Object getValue( int dataColumn, int dataRow )
+  {
+    // return header corner cell value
+    if ( dataColumn == HEADER && dataRow == HEADER )
+      return null;
+
+    // return row value for specified row index
+    if ( dataColumn == HEADER )
+      return String.valueOf( dataRow + 1 );
+
+    // return column value for specified column index
+    if ( dataRow == HEADER )
+      return m_names[dataColumn];
+
+    // return cell value as object (boxed), prefer primitive getters where possible
+    if ( isNull( dataColumn, dataRow ) )
+      return null;
+
+    return switch ( m_types[dataColumn] )
+    {
+      case INTEGER -> getInt( dataColumn, dataRow );
+      case LONG -> getLong( dataColumn, dataRow );
+      case DOUBLE -> getDouble( dataColumn, dataRow );
+      case DATE -> new Date( getInt( dataColumn, dataRow ) );
+      case TIME -> Time.fromMilliseconds( getInt( dataColumn, dataRow ) );
+      case TEXT -> getString( dataColumn, dataRow );
+    };
+  }
+
+  /**************************************** processValue *****************************************/
+  @Override
+  protected String processValue( int dataColumn, int dataRow, Object newValue, Boolean setValue )
+  {
+    // check new value is suitable for column type, and set if requested (throws exception if unparsable text)
+    if ( newValue == null )
+    {
+      if ( setValue )
+        setNull( dataColumn, dataRow );
+      return null;
+    }
+
+    switch ( m_types[dataColumn] )
+    {
+      case INTEGER:
+        int integer = newValue instanceof Integer value ? value : Integer.parseInt( newValue.toString().strip() );
+        if ( integer == NULL_INT )
+          return "Value out of range " + integer;
+        if ( setValue )
+          setInt( dataColumn, dataRow, integer );
+        return null;
+
+      case LONG:
+        long number = newValue instanceof Number value && !( newValue instanceof Double )
+            && !( newValue instanceof Float ) ? value.longValue() : Long.parseLong( newValue.toString().strip() );
+        if ( number == NULL_LONG )
+          return "Value out of range " + number;
+        if ( setValue )
+          setLong( dataColumn, dataRow, number );
+        return null;
+
+      case DOUBLE:
+        double real = newValue instanceof Number value ? value.doubleValue()
+            : Double.parseDouble( newValue.toString().strip() );
+        if ( setValue )
+          setDouble( dataColumn, dataRow, real );
+        return null;
+
+      case DATE:
+        Date date = newValue instanceof Date value ? value : Date.fromString( newValue.toString() );
+        if ( setValue )
+          setInt( dataColumn, dataRow, date.getEpochday() );
+        return null;
+
+      case TIME:
+        Time time = newValue instanceof Time value ? value : Time.fromString( newValue.toString() );
+        if ( setValue )
+          setInt( dataColumn, dataRow, time.getDayMilliseconds() );
+        return null;
+
+      default:
+        if ( setValue )
+          setString( dataColumn, dataRow, newValue.toString() );
+        return null;
+    }
+  }
+
+  /****************************************** checkType ******************************************/
+  private int checkType( int dataColumn, ColumnType type )
+  {
+    // return column if it is of specified type, otherwise throw exception
+    if ( m_types[dataColumn] != type )
+      throw new IllegalArgumentException( "Column " + dataColumn + " is " + m_types[dataColumn] + " not " + type );
+    return dataColumn;
+  }
+
+  /****************************************** newVector ******************************************/
+  private static Object newVector( ColumnType type, int length )
+  {
+    // return new vector for column type filled with missing values
+    Object vector = switch ( type )
+    {
+      case LONG -> new long[length];
+      case DOUBLE -> new double[length];
+      default -> new int[length];
+    };
+    fillNull( type, vector, 0, length );
+    return vector;
+  }
+
+  /***************************************** growVector ******************************************/
+  private static Object growVector( ColumnType type, Object vector, int oldLength, int newLength )
+  {
+    // return copy of vector with new length, additional elements being missing values
+    Object grown = switch ( type )
+    {
+      case LONG -> Arrays.copyOf( (long[]) vector, newLength );
+      case DOUBLE -> Arrays.copyOf( (double[]) vector, newLength );
+      default -> Arrays.copyOf( (int[]) vector, newLength );
+    };
+    fillNull( type, grown, oldLength, newLength );
+    return grown;
+  }
+
+  /****************************************** fillNull *******************************************/
+  private static void fillNull( ColumnType type, Object vector, int from, int to )
+  {
+    // set vector elements from (inclusive) to (exclusive) to missing values
+    switch ( type )
+    {
+      case LONG -> Arrays.fill( (long[]) vector, from, to, NULL_LONG );
+      case DOUBLE -> Arrays.fill( (double[]) vector, from, to, NULL_DOUBLE );
+      default -> Arrays.fill( (int[]) vector, from, to, NULL_INT );
+    }
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[columns="
+        + m_types.length + " rows=" + getRowCount() + " capacity=" + m_capacity + "]";
+  }
+}
\ No newline at end of file
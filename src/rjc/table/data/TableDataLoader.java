@@ -0,0 +1,801 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.data;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+
+import javafx.application.Platform;
+import rjc.table.data.TableDataColumnar.ColumnType;
+import rjc.table.data.types.Date;
+import rjc.table.data.types.Time;
+import rjc.table.signal.ISignal;
+
+/*************************************************************************************************/
+/*********** Loads CSV or TSV file into columnar table data parsing chunks in parallel ***********/
+/*************************************************************************************************/
+
+public class TableDataLoader implements ISignal
+{
+  // rows parsed from one chunk of file waiting to be appended to table data
+  private static class Block
+  {
+    private int      m_rows;     // number of rows parsed
+    private int      m_capacity; // number of rows space available for
+    private Object[] m_values;   // int[], long[], double[] or String[] holding values of each column
+
+    /**************************************** constructor ****************************************/
+    private Block( ColumnType[] types, int capacity )
+    {
+      // create empty block with space for capacity rows
+      m_capacity = capacity;
+      m_values = new Object[types.length];
+      for ( int column = 0; column < types.length; column++ )
+        m_values[column] = switch ( types[column] )
+        {
+          case LONG -> new long[capacity];
+          case DOUBLE -> new double[capacity];
+          case TEXT -> new String[capacity];
+          default -> new int[capacity];
+        };
+    }
+
+    /******************************************* grow ********************************************/
+    private void grow()
+    {
+      // double space for rows
+      m_capacity = m_capacity * 2 + 16;
+      for ( int column = 0; column < m_values.length; column++ )
+        if ( m_values[column] instanceof int[] values )
+          m_values[column] = Arrays.copyOf( values, m_capacity );
+        else if ( m_values[column] instanceof long[] values )
+          m_values[column] = Arrays.copyOf( values, m_capacity );
+        else if ( m_values[column] instanceof double[] values )
+          m_values[column] = Arrays.copyOf( values, m_capacity );
+        else if ( m_values[column] instanceof String[] values )
+          m_values[column] = Arrays.copyOf( values, m_capacity );
+    }
+  }
+
+  // splits rows of one mapped file window into field byte ranges, and converts fields to values
+  private class Parser
+  {
+    private MappedByteBuffer m_buffer;                    // mapped window containing rows being parsed
+    private long             m_base;                      // file position of start of window
+    private int              m_limit;                     // end of window
+    private int              m_count;                     // number of fields in last row parsed
+    private int[]            m_starts  = new int[16];     // start of each field (inside any quotes)
+    private int[]            m_ends    = new int[16];     // end of each field (exclusive)
+    private boolean[]        m_quoted  = new boolean[16]; // quoted field (empty quoted text is not missing)
+    private boolean[]        m_escaped = new boolean[16]; // quoted field containing doubled quotes
+    private byte[]           m_bytes   = new byte[256];   // work space for decoding text
+
+    /**************************************** constructor ****************************************/
+    private Parser( long pos )
+    {
+      // create parser for window holding rows starting at file position
+      int window = (int) ( pos >>> WINDOW_BITS );
+      m_buffer = m_windows[window];
+      m_base = (long) window << WINDOW_BITS;
+      m_limit = m_buffer.limit();
+    }
+
+    /***************************************** parseRow ******************************************/
+    private int parseRow( int pos )
+    {
+      // split row starting at window position into fields, returning position of next row
+      m_count = 0;
+      while ( true )
+      {
+        int start = pos;
+        int end;
+        boolean quoted = m_quote != 0 && pos < m_limit && m_buffer.get( pos ) == m_quote;
+        boolean escaped = false;
+        if ( quoted )
+        {
+          // quoted field ends at quote not followed by another quote, and may contain delimiters & newlines
+          start = ++pos;
+          while ( pos < m_limit && ( m_buffer.get( pos ) != m_quote
+              || pos + 1 < m_limit && m_buffer.get( pos + 1 ) == m_quote ) )
+          {
+            if ( m_buffer.get( pos ) == m_quote )
+            {
+              escaped = true;
+              pos++;
+            }
+            pos++;
+          }
+          end = pos;
+
+          // ignore any characters between closing quote and delimiter
+          while ( pos < m_limit && m_buffer.get( pos ) != m_delimiter && m_buffer.get( pos ) != '\n' )
+            pos++;
+        }
+        else
+        {
+          while ( pos < m_limit && m_buffer.get( pos ) != m_delimiter && m_buffer.get( pos ) != '\n' )
+            pos++;
+          end = pos > start && m_buffer.get( pos - 1 ) == '\r' ? pos - 1 : pos;
+        }
+        add( start, end, quoted, escaped );
+
+        // row too long to be held in one window cannot be parsed
+        if ( pos >= m_limit && m_base + m_limit < m_size )
+          throw new IllegalStateException( "Row longer than " + WINDOW_OVERLAP + " bytes at " + ( m_base + start ) );
+        if ( pos >= m_limit || m_buffer.get( pos ) == '\n' )
+          return Math.min( pos + 1, m_limit );
+        pos++;
+      }
+    }
+
+    /****************************************** isEmpty ******************************************/
+    private boolean isEmpty( int field )
+    {
+      // return true if field missing or empty and not quoted
+      return field >= m_count || ( m_starts[field] == m_ends[field] && !m_quoted[field] );
+    }
+
+    /****************************************** getLong ******************************************/
+    private long getLong( int field )
+    {
+      // return field as long parsed directly from bytes, or NULL_LONG if not an integer
+      if ( isEmpty( field ) )
+        return TableDataColumnar.NULL_LONG;
+      int pos = trim( field );
+      int end = m_ends[field];
+      while ( end > pos && m_buffer.get( end - 1 ) == ' ' )
+        end--;
+
+      boolean negative = pos < end && m_buffer.get( pos ) == '-';
+      if ( pos < end && ( negative || m_buffer.get( pos ) == '+' ) )
+        pos++;
+      if ( pos == end )
+        return TableDataColumnar.NULL_LONG;
+
+      long value = 0L;
+      for ( ; pos < end; pos++ )
+      {
+        int digit = m_buffer.get( pos ) - '0';
+        if ( digit < 0 || digit > 9 || value > ( Long.MAX_VALUE - digit ) / 10L )
+          return TableDataColumnar.NULL_LONG;
+        value = value * 10L + digit;
+      }
+      return negative ? -value : value;
+    }
+
+    /***************************************** getDouble *****************************************/
+    private double getDouble( int field )
+    {
+      // return field as double, or NULL_DOUBLE if not a number
+      long integer = getLong( field );
+      if ( integer != TableDataColumnar.NULL_LONG )
+        return integer;
+
+      String text = isEmpty( field ) ? null : getText( field ).strip();
+      if ( text == null || text.isEmpty() || !Character.isDigit( text.charAt( text.length() - 1 ) )
+          && text.charAt( text.length() - 1 ) != '.' )
+        return TableDataColumnar.NULL_DOUBLE;
+      try
+      {
+        return Double.parseDouble( text );
+      }
+      catch ( NumberFormatException exception )
+      {
+        return TableDataColumnar.NULL_DOUBLE;
+      }
+    }
+
+    /**************************************** getEpochDay ****************************************/
+    private int getEpochDay( int field )
+    {
+      // return field as epoch-day, quickly if year-month-day, otherwise using Date.parse, or NULL_INT if not a date
+      if ( isEmpty( field ) )
+        return TableDataColumnar.NULL_INT;
+
+      int pos = trim( field );
+      int[] parts = new int[3];
+      int part = 0;
+      int digits = 0;
+      for ( ; pos < m_ends[field] && part < 3; pos++ )
+      {
+        byte ch = m_buffer.get( pos );
+        if ( ch >= '0' && ch <= '9' && digits++ < 4 )
+          parts[part] = parts[part] * 10 + ch - '0';
+        else if ( ( ch == '-' || ch == '/' ) && digits > 0 && part < 2 )
+        {
+          part++;
+          digits = 0;
+        }
+        else
+          break;
+      }
+      if ( pos == m_ends[field] && part == 2 && digits > 0 && parts[1] >= 1 && parts[1] <= 12 && parts[2] >= 1
+          && parts[2] <= LocalDate.of( parts[0], parts[1], 1 ).lengthOfMonth() )
+        return (int) LocalDate.of( parts[0], parts[1], parts[2] ).toEpochDay();
+
+      String text = getText( field ).strip();
+      Date date = text.isEmpty() || text.length() > 32 ? null : Date.parse( text, "yyyy-MM-dd" );
+      return date == null ? TableDataColumnar.NULL_INT : date.getEpochday();
+    }
+
+    /************************************ getDayMilliseconds *************************************/
+    private int getDayMilliseconds( int field )
+    {
+      // return field as milliseconds from start of day, quickly if hours:minutes[:seconds[.fraction]],
+      // otherwise using Time.fromString, or NULL_INT if not a time
+      if ( isEmpty( field ) )
+        return TableDataColumnar.NULL_INT;
+
+      int pos = trim( field );
+      int[] parts = new int[4];
+      int part = 0;
+      int digits = 0;
+      for ( ; pos < m_ends[field]; pos++ )
+      {
+        byte ch = m_buffer.get( pos );
+        if ( ch >= '0' && ch <= '9' && digits++ < ( part < 3 ? 2 : 3 ) )
+          parts[part] = parts[part] * 10 + ch - '0';
+        else if ( ( ch == ':' && part < 2 || ch == '.' && part == 2 ) && digits > 0 )
+        {
+          part++;
+          digits = 0;
+        }
+        else
+          break;
+      }
+      if ( pos == m_ends[field] && part > 0 && digits > 0 && parts[1] <= 59 && parts[2] <= 59 )
+      {
+        for ( ; part == 3 && digits < 3; digits++ )
+          parts[3] *= 10;
+        int milliseconds = ( ( parts[0] * 60 + parts[1] ) * 60 + parts[2] ) * 1000 + parts[3];
+        return milliseconds <= Time.MILLISECONDS_IN_DAY ? milliseconds : TableDataColumnar.NULL_INT;
+      }
+
+      String text = getText( field ).strip();
+      if ( text.indexOf( ':' ) < 0 )
+        return TableDataColumnar.NULL_INT;
+      try
+      {
+        return Time.fromString( text ).getDayMilliseconds();
+      }
+      catch ( Exception exception )
+      {
+        return TableDataColumnar.NULL_INT;
+      }
+    }
+
+    /****************************************** getText ******************************************/
+    private String getText( int field )
+    {
+      // return field decoded as UTF-8 text with doubled quotes undoubled, or null if empty and not quoted
+      if ( isEmpty( field ) )
+        return null;
+
+      int length = m_ends[field] - m_starts[field];
+      if ( length > m_bytes.length )
+        m_bytes = new byte[length * 2];
+      m_buffer.get( m_starts[field], m_bytes, 0, length );
+      if ( m_escaped[field] )
+      {
+        int count = 0;
+        for ( int index = 0; index < length; index++ )
+        {
+          m_bytes[count++] = m_bytes[index];
+          if ( m_bytes[index] == m_quote )
+            index++;
+        }
+        length = count;
+      }
+      return new String( m_bytes, 0, length, StandardCharsets.UTF_8 );
+    }
+
+    /******************************************* trim ********************************************/
+    private int trim( int field )
+    {
+      // return start of field after any leading spaces
+      int pos = m_starts[field];
+      while ( pos < m_ends[field] && m_buffer.get( pos ) == ' ' )
+        pos++;
+      return pos;
+    }
+
+    /******************************************** add ********************************************/
+    private void add( int start, int end, boolean quoted, boolean escaped )
+    {
+      // add field to fields of row being parsed
+      if ( m_count == m_starts.length )
+      {
+        m_starts = Arrays.copyOf( m_starts, m_count * 2 );
+        m_ends = Arrays.copyOf( m_ends, m_count * 2 );
+        m_quoted = Arrays.copyOf( m_quoted, m_count * 2 );
+        m_escaped = Arrays.copyOf( m_escaped, m_count * 2 );
+      }
+      m_starts[m_count] = start;
+      m_ends[m_count] = end;
+      m_quoted[m_count] = quoted;
+      m_escaped[m_count++] = escaped;
+    }
+  }
+
+  final static public int    SAMPLE_ROWS    = 1000;       // rows sampled to infer column types
+  final static private int   FIRST_SIZE     = 64 << 10;   // bytes of file parsed before load returns
+  final static private int   CHUNK_SIZE     = 8 << 20;    // bytes of file parsed by each task
+  final static private int   WINDOW_BITS    = 30;         // file mapped in windows starting every 1GB
+  final static private long  WINDOW_OVERLAP = 512L << 20; // windows overlap so rows never span windows
+  final static private int   SLICE_ROWS     = 16384;      // rows appended by FX thread at a time
+  final static private int   HAND_OFF_MAX   = 2;          // slices waiting for FX thread
+
+  // parser states between bytes, tracked so each chunk parsed in parallel knows where its first row starts
+  final static private int   ROW_START      = 0;          // at start of row
+  final static private int   FIELD_START    = 1;          // at start of field after delimiter
+  final static private int   UNQUOTED       = 2;          // in unquoted field, or after quoted field closed
+  final static private int   QUOTED         = 3;          // in quoted field
+  final static private int   QUOTE_SEEN     = 4;          // after quote in quoted field (closes unless doubled)
+  final static private int   STATES         = 5;
+
+  private Path               m_file;                          // file being loaded
+  private byte               m_delimiter;                     // field delimiter
+  private byte               m_quote;                         // field quote, or zero if fields never quoted
+  private long               m_size;                          // file size in bytes
+  private MappedByteBuffer[] m_windows;                       // overlapping mapped windows of file
+  private int                m_dataStart;                     // file position of first row after header
+  private int                m_rowBytes;                      // estimated average bytes per row
+  private ColumnType[]       m_types;                         // column types inferred from sample rows
+  private TableDataColumnar  m_data;                          // table data being loaded
+  private int                m_rows;                          // rows of file added to table data (FX thread)
+
+  private Executor           m_fxThread = Platform::runLater; // hands parsed blocks to FX thread
+  private Semaphore          m_handOff  = new Semaphore( HAND_OFF_MAX ); // limits slices waiting for FX thread
+  private volatile boolean   m_loading;                       // true while rows still being added
+  private volatile boolean   m_cancelled;                     // true if loading cancelled
+  private volatile long      m_loaded;                        // bytes of file added to table data
+  private volatile Exception m_error;                         // exception that stopped loading
+
+  /***************************************** constructor *****************************************/
+  public TableDataLoader( Path file )
+  {
+    // create loader for file, tab separated if file name ends .tsv or .tab, otherwise comma separated
+    this( file, file.getFileName().toString().toLowerCase().matches( ".*\\.(tsv|tab)" ) ? '\t' : ',' );
+  }
+
+  /***************************************** constructor *****************************************/
+  public TableDataLoader( Path file, char delimiter )
+  {
+    // create loader for file with specified delimiter, fields quoted with double-quotes unless tab separated
+    m_file = file;
+    m_delimiter = (byte) delimiter;
+    m_quote = delimiter == '\t' ? 0 : (byte) '"';
+  }
+
+  /******************************************** load *********************************************/
+  public TableDataColumnar load() throws IOException
+  {
+    // map file, take column names from header row and infer column types from sample rows
+    map();
+    inferTypes();
+
+    // rows at start of file added immediately so first screen shown without waiting for rest of file
+    var block = new Block( m_types, FIRST_SIZE / m_rowBytes + 16 );
+    m_dataStart = parseRows( new Parser( 0L ), block, m_dataStart, (int) Math.min( FIRST_SIZE, m_size ) );
+    m_loaded = m_dataStart;
+    append( block, 0, block.m_rows );
+
+    // remaining chunks parsed in parallel and handed to FX thread in file order as they complete
+    if ( m_loaded < m_size )
+    {
+      m_loading = true;
+      var thread = new Thread( () -> loadRemaining(), "TableDataLoader" );
+      thread.setDaemon( true );
+      thread.start();
+    }
+    return m_data;
+  }
+
+  /******************************************* cancel ********************************************/
+  public void cancel()
+  {
+    // stop adding rows to table data
+    m_cancelled = true;
+  }
+
+  /****************************************** isLoading ******************************************/
+  public boolean isLoading()
+  {
+    // return true if rows still being added to table data
+    return m_loading;
+  }
+
+  /***************************************** getProgress *****************************************/
+  public double getProgress()
+  {
+    // return fraction of file added to table data
+    return m_size == 0L ? 1.0 : (double) m_loaded / m_size;
+  }
+
+  /****************************************** getError *******************************************/
+  public Exception getError()
+  {
+    // return exception that stopped loading, or null
+    return m_error;
+  }
+
+  /******************************************* getData *******************************************/
+  public TableDataColumnar getData()
+  {
+    // return table data being loaded (null before load called)
+    return m_data;
+  }
+
+  /**************************************** loadRemaining ****************************************/
+  private void loadRemaining()
+  {
+    // scan chunks in parallel for parser state at chunk end from every possible state at chunk start, so
+    // each chunk knows its starting parser state (for example inside a quoted field) exactly as parseRow would
+    // (starting from chunk containing first row not yet added, as very long rows can take it beyond first chunk)
+    var pool = ForkJoinPool.commonPool();
+    int first = m_dataStart / CHUNK_SIZE;
+    int chunks = (int) ( ( m_size + CHUNK_SIZE - 1 ) / CHUNK_SIZE );
+    var scans = new ArrayList<ForkJoinTask<int[]>>( chunks - first );
+    var parses = new ArrayDeque<ForkJoinTask<Block>>();
+    try
+    {
+      for ( int chunk = first; m_quote != 0 && chunk < chunks - 1; chunk++ )
+      {
+        int scan = chunk;
+        scans.add( pool.submit( () -> scanStates( scan ) ) );
+      }
+
+      // keep several chunks parsing ahead of the next chunk to be handed to FX thread
+      int state = ROW_START;
+      int next = first;
+      while ( !m_cancelled && ( next < chunks || !parses.isEmpty() ) )
+      {
+        while ( next < chunks && parses.size() < pool.getParallelism() * 2 )
+        {
+          if ( next > first && m_quote != 0 )
+            state = scans.get( next - 1 - first ).join()[state];
+          int startState = state;
+          int chunk = next++;
+          parses.add( pool.submit( () -> parseChunk( chunk, startState ) ) );
+        }
+        Block block = parses.remove().join();
+        publish( block, Math.min( (long) ( next - parses.size() ) * CHUNK_SIZE, m_size ) );
+      }
+    }
+    catch ( Exception exception )
+    {
+      m_error = exception;
+    }
+    finally
+    {
+      // stop any unwanted work and announce loading finished
+      scans.forEach( task -> task.cancel( false ) );
+      parses.forEach( task -> task.cancel( false ) );
+      m_fxThread.execute( () ->
+      {
+        m_loading = false;
+        signal();
+      } );
+    }
+  }
+
+  /******************************************* publish *******************************************/
+  private void publish( Block block, long loaded ) throws InterruptedException
+  {
+    // hand block to FX thread in slices so each is quick to append, waiting if FX thread has enough to append
+    for ( int from = 0; from < block.m_rows || from == 0; from += SLICE_ROWS )
+    {
+      int start = from;
+      int end = Math.min( from + SLICE_ROWS, block.m_rows );
+      m_handOff.acquire();
+      m_fxThread.execute( () ->
+      {
+        try
+        {
+          if ( !m_cancelled )
+          {
+            append( block, start, end );
+            if ( end == block.m_rows )
+              m_loaded = loaded;
+            signal();
+          }
+        }
+        finally
+        {
+          m_handOff.release();
+        }
+      } );
+    }
+  }
+
+  /******************************************* append ********************************************/
+  private void append( Block block, int from, int to )
+  {
+    // append block rows after rows already added from file, whatever row count has been set to meanwhile
+    // (values of new rows already missing so only set non-missing values)
+    int first = m_rows - from;
+    m_rows = first + to;
+    int existing = m_data.getRowCount();
+    if ( existing < m_rows )
+      m_data.setRowCount( m_rows );
+
+    // rows already present if row count raised meanwhile, so clear any values in them first
+    for ( int row = first + from; row < existing && row < m_rows; row++ )
+      for ( int column = 0; column < m_types.length; column++ )
+        m_data.setNull( column, row );
+    for ( int column = 0; column < m_types.length; column++ )
+      if ( block.m_values[column] instanceof int[] values )
+      {
+        for ( int row = from; row < to; row++ )
+          if ( values[row] != TableDataColumnar.NULL_INT )
+            m_data.setInt( column, first + row, values[row] );
+      }
+      else if ( block.m_values[column] instanceof long[] values )
+      {
+        for ( int row = from; row < to; row++ )
+          if ( values[row] != TableDataColumnar.NULL_LONG )
+            m_data.setLong( column, first + row, values[row] );
+      }
+      else if ( block.m_values[column] instanceof double[] values )
+      {
+        for ( int row = from; row < to; row++ )
+          if ( !Double.isNaN( values[row] ) )
+            m_data.setDouble( column, first + row, values[row] );
+      }
+      else if ( block.m_values[column] instanceof String[] values )
+        for ( int row = from; row < to; row++ )
+          if ( values[row] != null )
+            m_data.setString( column, first + row, values[row] );
+  }
+
+  /******************************************* addRow ********************************************/
+  private void addRow( Block block, Parser parser )
+  {
+    // convert fields of row just parsed to column values and add to block
+    if ( block.m_rows == block.m_capacity )
+      block.grow();
+    int row = block.m_rows++;
+    for ( int column = 0; column < m_types.length; column++ )
+      switch ( m_types[column] )
+      {
+        case INTEGER ->
+        {
+          long value = parser.getLong( column );
+          ( (int[]) block.m_values[column] )[row] = value > Integer.MIN_VALUE && value <= Integer.MAX_VALUE
+              ? (int) value : TableDataColumnar.NULL_INT;
+        }
+        case LONG -> ( (long[]) block.m_values[column] )[row] = parser.getLong( column );
+        case DOUBLE -> ( (double[]) block.m_values[column] )[row] = parser.getDouble( column );
+        case DATE -> ( (int[]) block.m_values[column] )[row] = parser.getEpochDay( column );
+        case TIME -> ( (int[]) block.m_values[column] )[row] = parser.getDayMilliseconds( column );
+        case TEXT -> ( (String[]) block.m_values[column] )[row] = parser.getText( column );
+      }
+  }
+
+  /***************************************** scanStates ******************************************/
+  private int[] scanStates( int chunk )
+  {
+    // return parser state at end of chunk for each possible state at start of chunk (chunk containing first
+    // row not yet added starts there), scanning the states together and merging them once they become the same
+    int[] current = { ROW_START, FIELD_START, UNQUOTED, QUOTED, QUOTE_SEEN }; // distinct states being scanned
+    int[] slot = { 0, 1, 2, 3, 4 };                                          // current state of each start state
+    int count = STATES;
+    long start = (long) chunk * CHUNK_SIZE;
+    var parser = new Parser( start );
+    int end = (int) ( Math.min( start + CHUNK_SIZE, m_size ) - parser.m_base );
+    int pos = (int) ( Math.max( start, m_dataStart ) - parser.m_base );
+    for ( ; pos < end && !m_cancelled; pos++ )
+    {
+      byte ch = parser.m_buffer.get( pos );
+      for ( int index = 0; index < count; index++ )
+        current[index] = nextState( current[index], ch );
+
+      // states usually become the same at end of row, so merge them to scan fewer
+      if ( ch == '\n' && count > 1 )
+        for ( int first = 0; first < count; first++ )
+          for ( int other = count - 1; other > first; other-- )
+            if ( current[other] == current[first] )
+            {
+              count--;
+              for ( int state = 0; state < STATES; state++ )
+                if ( slot[state] == other )
+                  slot[state] = first;
+                else if ( slot[state] == count )
+                  slot[state] = other;
+              current[other] = current[count];
+            }
+    }
+
+    int[] ends = new int[STATES];
+    for ( int state = 0; state < STATES; state++ )
+      ends[state] = current[slot[state]];
+    return ends;
+  }
+
+  /****************************************** nextState ******************************************/
+  private int nextState( int state, byte ch )
+  {
+    // return parser state after byte, quotes only being special at start of field as in parseRow
+    if ( state == QUOTED )
+      return ch == m_quote ? QUOTE_SEEN : QUOTED;
+    if ( ch == m_quote && m_quote != 0 && state != UNQUOTED )
+      return QUOTED;
+    if ( ch == '\n' )
+      return ROW_START;
+    return ch == m_delimiter ? FIELD_START : UNQUOTED;
+  }
+
+  /***************************************** parseChunk ******************************************/
+  private Block parseChunk( int chunk, int state )
+  {
+    // parse rows starting in chunk into block, skipping blank rows
+    long start = (long) chunk * CHUNK_SIZE;
+    var parser = new Parser( start );
+    var block = new Block( m_types, Math.min( CHUNK_SIZE / m_rowBytes, 1 << 16 ) + 16 );
+    if ( m_cancelled )
+      return block;
+
+    int end = (int) ( Math.min( start + CHUNK_SIZE, m_size ) - parser.m_base );
+    parseRows( parser, block, start <= m_dataStart ? (int) ( m_dataStart - parser.m_base )
+        : findRowStart( parser, start, state ), end );
+    return block;
+  }
+
+  /****************************************** parseRows ******************************************/
+  private int parseRows( Parser parser, Block block, int pos, int end )
+  {
+    // parse rows starting before end position into block, skipping blank rows, returning position of next row
+    while ( pos < end )
+    {
+      pos = parser.parseRow( pos );
+      if ( parser.m_count > 1 || !parser.isEmpty( 0 ) )
+        addRow( block, parser );
+    }
+    return pos;
+  }
+
+  /**************************************** findRowStart *****************************************/
+  private int findRowStart( Parser parser, long start, int state )
+  {
+    // return window position of first row starting at or after file position, given parser state there
+    // (only known if fields can be quoted, otherwise it is a row start if previous byte ends a row)
+    int pos = (int) ( start - parser.m_base );
+    if ( m_quote == 0 )
+    {
+      long previous = start - 1L;
+      state = m_windows[(int) ( previous >>> WINDOW_BITS )]
+          .get( (int) ( previous - ( previous >>> WINDOW_BITS << WINDOW_BITS ) ) ) == '\n' ? ROW_START : UNQUOTED;
+    }
+    if ( state == ROW_START )
+      return pos;
+
+    for ( ; pos < parser.m_limit; pos++ )
+    {
+      state = nextState( state, parser.m_buffer.get( pos ) );
+      if ( state == ROW_START )
+        return pos + 1;
+    }
+    return parser.m_limit;
+  }
+
+  /***************************************** inferTypes ******************************************/
+  private void inferTypes()
+  {
+    // read column names from header row (skipping any UTF-8 byte order mark)
+    var parser = new Parser( 0L );
+    int pos = m_size >= 3 && parser.m_buffer.get( 0 ) == (byte) 0xEF && parser.m_buffer.get( 1 ) == (byte) 0xBB
+        && parser.m_buffer.get( 2 ) == (byte) 0xBF ? 3 : 0;
+    pos = parser.parseRow( pos );
+    var names = new ArrayList<String>();
+    for ( int field = 0; field < parser.m_count; field++ )
+      names.add( parser.getText( field ) );
+    m_dataStart = pos;
+
+    // sample rows to find which types every non-empty value of each column can be parsed as
+    // (text entry marks column as having a non-empty sampled value)
+    var possible = new ArrayList<boolean[]>();
+    int rows = 0;
+    while ( rows < SAMPLE_ROWS && pos < parser.m_limit )
+    {
+      pos = parser.parseRow( pos );
+      if ( parser.m_count == 1 && parser.isEmpty( 0 ) )
+        continue;
+      rows++;
+      for ( int field = 0; field < parser.m_count; field++ )
+      {
+        if ( field == possible.size() )
+          possible.add( new boolean[] { true, true, true, true, true, false } );
+        boolean[] types = possible.get( field );
+        if ( !parser.isEmpty( field ) )
+        {
+          long integer = parser.getLong( field );
+          types[ColumnType.INTEGER.ordinal()] &= integer > Integer.MIN_VALUE && integer <= Integer.MAX_VALUE;
+          types[ColumnType.LONG.ordinal()] &= integer != TableDataColumnar.NULL_LONG;
+          types[ColumnType.DOUBLE.ordinal()] &= !Double.isNaN( parser.getDouble( field ) );
+          if ( types[ColumnType.DATE.ordinal()] )
+            types[ColumnType.DATE.ordinal()] = parser.getEpochDay( field ) != TableDataColumnar.NULL_INT;
+          if ( types[ColumnType.TIME.ordinal()] )
+            types[ColumnType.TIME.ordinal()] = parser.getDayMilliseconds( field ) != TableDataColumnar.NULL_INT;
+          types[ColumnType.TEXT.ordinal()] = true;
+        }
+      }
+    }
+    m_rowBytes = Math.max( 1, ( pos - m_dataStart ) / Math.max( 1, rows ) );
+
+    // each column takes first type possible for all sampled values, text if none or no values sampled
+    int columns = Math.max( names.size(), possible.size() );
+    m_types = new ColumnType[columns];
+    String[] columnNames = new String[columns];
+    for ( int column = 0; column < columns; column++ )
+    {
+      m_types[column] = ColumnType.TEXT;
+      boolean[] types = column < possible.size() ? possible.get( column ) : null;
+      if ( types != null && types[ColumnType.TEXT.ordinal()] )
+        for ( ColumnType type : ColumnType.values() )
+          if ( types[type.ordinal()] )
+          {
+            m_types[column] = type;
+            break;
+          }
+
+      String name = column < names.size() ? names.get( column ) : null;
+      columnNames[column] = name == null || name.isBlank() ? "C" + column : name;
+    }
+    m_data = new TableDataColumnar( columnNames, m_types, 0 );
+  }
+
+  /********************************************* map *********************************************/
+  private void map() throws IOException
+  {
+    // map file as windows starting every 1GB, each overlapping next so any row is wholly within one window
+    try ( FileChannel channel = FileChannel.open( m_file, StandardOpenOption.READ ) )
+    {
+      m_size = channel.size();
+      m_windows = new MappedByteBuffer[(int) Math.max( 1L, ( m_size + ( 1L << WINDOW_BITS ) - 1L ) >>> WINDOW_BITS )];
+      for ( int window = 0; window < m_windows.length; window++ )
+      {
+        long start = (long) window << WINDOW_BITS;
+        long length = Math.min( m_size - start, ( 1L << WINDOW_BITS ) + WINDOW_OVERLAP );
+        m_windows[window] = channel.map( MapMode.READ_ONLY, start, length );
+      }
+    }
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[file="
+        + m_file + " size=" + m_size + " loaded=" + m_loaded + " loading=" + m_loading + "]";
+  }
+}
\ No newline at end of file
@@ -0,0 +1,529 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import rjc.table.data.TableDataColumnar.ColumnType;
+import rjc.table.data.types.Date;
+import rjc.table.data.types.Time;
+
+/*************************************************************************************************/
+/************** Read-only table data read directly from a memory-mapped column file **************/
+/*************************************************************************************************/
+
+public class TableDataMapped extends TableData implements IDataText
+{
+  // buffered little-endian sequential writer to file channel from specified position
+  private static class Output
+  {
+    private FileChannel m_channel;
+    private ByteBuffer  m_buffer = ByteBuffer.allocate( 1 << 16 ).order( ByteOrder.LITTLE_ENDIAN );
+    private long        m_position;
+
+    /**************************************** constructor ****************************************/
+    private Output( FileChannel channel, long position )
+    {
+      // create writer starting at file position
+      m_channel = channel;
+      m_position = position;
+    }
+
+    /***************************************** position ******************************************/
+    private long position()
+    {
+      // return file position of next byte written
+      return m_position + m_buffer.position();
+    }
+
+    /****************************************** putInt *******************************************/
+    private void putInt( int value ) throws IOException
+    {
+      // write int
+      ensure( 4 );
+      m_buffer.putInt( value );
+    }
+
+    /****************************************** putLong ******************************************/
+    private void putLong( long value ) throws IOException
+    {
+      // write long
+      ensure( 8 );
+      m_buffer.putLong( value );
+    }
+
+    /***************************************** putBytes ******************************************/
+    private void putBytes( byte[] bytes ) throws IOException
+    {
+      // write bytes, directly if larger than buffer
+      if ( bytes.length > m_buffer.capacity() )
+      {
+        flush();
+        var wrapped = ByteBuffer.wrap( bytes );
+        while ( wrapped.hasRemaining() )
+          m_position += m_channel.write( wrapped, m_position );
+        return;
+      }
+      ensure( bytes.length );
+      m_buffer.put( bytes );
+    }
+
+    /******************************************** pad ********************************************/
+    private void pad() throws IOException
+    {
+      // write zero bytes until position is 8-byte aligned
+      while ( ( position() & 7L ) != 0L )
+      {
+        ensure( 1 );
+        m_buffer.put( (byte) 0 );
+      }
+    }
+
+    /****************************************** ensure *******************************************/
+    private void ensure( int bytes ) throws IOException
+    {
+      // flush buffer if not enough space for bytes
+      if ( m_buffer.remaining() < bytes )
+        flush();
+    }
+
+    /******************************************* flush *******************************************/
+    private void flush() throws IOException
+    {
+      // write buffered bytes to file
+      m_buffer.flip();
+      while ( m_buffer.hasRemaining() )
+        m_position += m_channel.write( m_buffer, m_position );
+      m_buffer.clear();
+    }
+  }
+
+  // file layout (little-endian, all column data 8-byte aligned so fixed-width values never span chunks)
+  //   header   : int MAGIC, int VERSION, int column count, int zero, long row count
+  //   columns  : per column int type (ColumnType ordinal), int name bytes, long data offset, UTF-8 name padded to 8
+  //   data     : INTEGER, DATE & TIME 4-byte ints, LONG 8-byte longs, DOUBLE 8-byte doubles, one per row
+  //   TEXT     : UTF-8 string bytes, then row count + 1 long offsets (data offset points at these offsets)
+  //              where string of row is bytes from offset of row to offset of next row, negative offset
+  //              (-start - 1) marking a null string
+  final static public int   MAGIC       = 0x4A544658;          // "JTFX"
+  final static public int   VERSION     = 1;
+
+  final static private int  CHUNK_BITS  = 30;                  // files mapped in chunks of 1GB
+  final static private long CHUNK_MASK  = ( 1L << CHUNK_BITS ) - 1L;
+  final static private int  HEADER_SIZE = 24;
+  final static private int  COLUMN_SIZE = 16;
+
+  private MappedByteBuffer[] m_chunks;                         // mapped file chunks
+  private String[]           m_names;                          // column names
+  private ColumnType[]       m_types;                          // column types
+  private long[]             m_offsets;                        // file offset of each column's data
+  private int                m_rows;                           // number of rows in file
+
+  /***************************************** constructor *****************************************/
+  public TableDataMapped( Path file ) throws IOException
+  {
+    // map file into memory (no data is read until needed so independent of file size) and read header
+    long size;
+    try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ ) )
+    {
+      size = channel.size();
+      if ( size < HEADER_SIZE )
+        throw new IOException( "Not a table file " + file );
+
+      m_chunks = new MappedByteBuffer[(int) ( ( size + CHUNK_MASK ) >>> CHUNK_BITS )];
+      for ( int chunk = 0; chunk < m_chunks.length; chunk++ )
+      {
+        long start = (long) chunk << CHUNK_BITS;
+        m_chunks[chunk] = channel.map( MapMode.READ_ONLY, start, Math.min( size - start, CHUNK_MASK + 1L ) );
+        m_chunks[chunk].order( ByteOrder.LITTLE_ENDIAN );
+      }
+    }
+
+    // check header and read column descriptions, checking they and each column's data lie within file so a
+    // truncated or corrupt file fails here rather than when cells are drawn
+    if ( readInt( 0L ) != MAGIC || readInt( 4L ) != VERSION )
+      throw new IOException( "Not a version " + VERSION + " table file " + file );
+    int columnCount = readInt( 8L );
+    long rowCount = readLong( 16L );
+    if ( columnCount < 0 || rowCount < 0L || rowCount > Integer.MAX_VALUE )
+      throw new IOException( "Invalid table size " + columnCount + " " + rowCount + " " + file );
+
+    m_names = new String[columnCount];
+    m_types = new ColumnType[columnCount];
+    m_offsets = new long[columnCount];
+    long pos = HEADER_SIZE;
+    for ( int column = 0; column < columnCount; column++ )
+    {
+      if ( pos + COLUMN_SIZE > size )
+        throw new IOException( "Truncated column " + column + " description " + file );
+      int type = readInt( pos );
+      if ( type < 0 || type >= ColumnType.values().length )
+        throw new IOException( "Invalid column " + column + " type " + type + " " + file );
+      m_types[column] = ColumnType.values()[type];
+      int length = readInt( pos + 4 );
+      if ( length < 0 || pos + COLUMN_SIZE + length > size )
+        throw new IOException( "Invalid column " + column + " name length " + length + " " + file );
+      byte[] name = new byte[length];
+      m_offsets[column] = readLong( pos + 8 );
+      readBytes( pos + COLUMN_SIZE, name );
+      m_names[column] = new String( name, StandardCharsets.UTF_8 );
+      pos += COLUMN_SIZE + align( name.length );
+
+      // column data must be aligned and fit in file (text has one more offset than rows)
+      long bytes = switch ( m_types[column] )
+      {
+        case LONG, DOUBLE -> rowCount * 8L;
+        case TEXT -> ( rowCount + 1L ) * 8L;
+        default -> rowCount * 4L;
+      };
+      if ( m_offsets[column] < HEADER_SIZE || ( m_offsets[column] & 7L ) != 0L || m_offsets[column] > size - bytes )
+        throw new IOException( "Invalid column " + column + " data offset " + m_offsets[column] + " " + file );
+    }
+
+    m_rows = (int) rowCount;
+    setColumnCount( columnCount );
+    setRowCount( m_rows );
+  }
+
+  /*************************************** setColumnCount ****************************************/
+  @Override
+  public void setColumnCount( int columnCount )
+  {
+    // number of columns is fixed by file
+    if ( columnCount != m_types.length )
+      throw new UnsupportedOperationException( "Columns fixed at " + m_types.length );
+    super.setColumnCount( columnCount );
+  }
+
+  /***************************************** setRowCount *****************************************/
+  @Override
+  public void setRowCount( int rowCount )
+  {
+    // number of rows is fixed by file, as rows beyond it would read past column data
+    if ( rowCount != m_rows )
+      throw new UnsupportedOperationException( "Rows fixed at " + m_rows );
+    super.setRowCount( rowCount );
+  }
+
+  /****************************************** getValues ******************************************/
+  @Override
+  public Object[][] getValues( int[] dataColumns, int[] dataRows )
+  {
+    // return cell values indexed by row then column, read on calling thread as mapped file is read only
+    var values = new Object[dataRows.length][dataColumns.length];
+    for ( int row = 0; row < dataRows.length; row++ )
+      for ( int column = 0; column < dataColumns.length; column++ )
+        values[row][column] = getValue( dataColumns[column], dataRows[row] );
+    return values;
+  }
+
+  /**************************************** getColumnType ****************************************/
+  public ColumnType getColumnType( int dataColumn )
+  {
+    // return type of column
+    return m_types[dataColumn];
+  }
+
+  /**************************************** getColumnName ****************************************/
+  public String getColumnName( int dataColumn )
+  {
+    // return name of column
+    return m_names[dataColumn];
+  }
+
+  /******************************************* isNull ********************************************/
+  public boolean isNull( int dataColumn, int dataRow )
+  {
+    // return true if cell value is missing
+    return switch ( m_types[dataColumn] )
+    {
+      case LONG -> getLong( dataColumn, dataRow ) == TableDataColumnar.NULL_LONG;
+      case DOUBLE -> Double.isNaN( getDouble( dataColumn, dataRow ) );
+      case TEXT -> readLong( m_offsets[dataColumn] + dataRow * 8L ) < 0L;
+      default -> getInt( dataColumn, dataRow ) == TableDataColumnar.NULL_INT;
+    };
+  }
+
+  /******************************************* getInt ********************************************/
+  public int getInt( int dataColumn, int dataRow )
+  {
+    // return cell value of integer, date (epoch-day) or time (day-milliseconds) column
+    ColumnType type = m_types[dataColumn];
+    if ( type == ColumnType.LONG || type == ColumnType.DOUBLE || type == ColumnType.TEXT )
+      throw new IllegalArgumentException( "Column " + dataColumn + " is " + type + " not int" );
+    return readInt( m_offsets[dataColumn] + dataRow * 4L );
+  }
+
+  /******************************************* getLong *******************************************/
+  public long getLong( int dataColumn, int dataRow )
+  {
+    // return cell value of long or integer column
+    if ( m_types[dataColumn] == ColumnType.LONG )
+      return readLong( m_offsets[dataColumn] + dataRow * 8L );
+
+    int value = getInt( checkType( dataColumn, ColumnType.INTEGER ), dataRow );
+    return value == TableDataColumnar.NULL_INT ? TableDataColumnar.NULL_LONG : value;
+  }
+
+  /****************************************** getDouble ******************************************/
+  public double getDouble( int dataColumn, int dataRow )
+  {
+    // return cell value of double, long or integer column as double (NaN if missing)
+    return switch ( m_types[dataColumn] )
+    {
+      case DOUBLE -> Double.longBitsToDouble( readLong( m_offsets[dataColumn] + dataRow * 8L ) );
+      case LONG ->
+      {
+        long value = getLong( dataColumn, dataRow );
+        yield value == TableDataColumnar.NULL_LONG ? TableDataColumnar.NULL_DOUBLE : value;
+      }
+      default ->
+      {
+        int value = getInt( checkType( dataColumn, ColumnType.INTEGER ), dataRow );
+        yield value == TableDataColumnar.NULL_INT ? TableDataColumnar.NULL_DOUBLE : value;
+      }
+    };
+  }
+
+  /***************************************** getEpochDay *****************************************/
+  public int getEpochDay( int dataColumn, int dataRow )
+  {
+    // return cell value of date column as epoch-day (NULL_INT if missing)
+    return getInt( checkType( dataColumn, ColumnType.DATE ), dataRow );
+  }
+
+  /************************************* getDayMilliseconds **************************************/
+  public int getDayMilliseconds( int dataColumn, int dataRow )
+  {
+    // return cell value of time column as milliseconds from start of day (NULL_INT if missing)
+    return getInt( checkType( dataColumn, ColumnType.TIME ), dataRow );
+  }
+
+  /****************************************** getString ******************************************/
+  public String getString( int dataColumn, int dataRow )
+  {
+    // return cell value of text column read from its offset-indexed bytes (null if missing)
+    long pos = m_offsets[checkType( dataColumn, ColumnType.TEXT )] + dataRow * 8L;
+    long start = readLong( pos );
+    if ( start < 0L )
+      return null;
+    long end = readLong( pos + 8L );
+    end = end < 0L ? -end - 1L : end;
+    if ( end < start || end > m_offsets[dataColumn] )
+      throw new IllegalStateException( "Invalid text offsets " + start + " " + end + " column " + dataColumn );
+
+    byte[] bytes = new byte[(int) ( end - start )];
+    readBytes( start, bytes );
+    return new String( bytes, StandardCharsets.UTF_8 );
+  }
+
+  /******************************************* getText *******************************************/
+  @Override
+  public String getText( int dataColumn, int dataRow )
+  {
+    // return cell value formatted as text without boxing primitive value (null if missing)
+    if ( isNull( dataColumn, dataRow ) )
+      return null;
+
+    return switch ( m_types[dataColumn] )
+    {
+      case INTEGER -> Integer.toString( getInt( dataColumn, dataRow ) );
+      case LONG -> Long.toString( getLong( dataColumn, dataRow ) );
+      case DOUBLE -> Double.toString( getDouble( dataColumn, dataRow ) );
+      case DATE -> new Date( getInt( dataColumn, dataRow ) ).toString();
+      case TIME -> Time.fromMilliseconds( getInt( dataColumn, dataRow ) ).toString();
+      case TEXT -> getString( dataColumn, dataRow );
+    };
+  }
+
+  /****************************************** getValue *******************************************/
+  @Override
+  public Object getValue( int dataColumn, int dataRow )
+  {
+    // return header corner cell value
+    if ( dataColumn == HEADER && dataRow == HEADER )
+      return null;
+
+    // return row value for specified row index
+    if ( dataColumn == HEADER )
+      return String.valueOf( dataRow + 1 );
+
+    // return column value for specified column index
+    if ( dataRow == HEADER )
+      return m_names[dataColumn];
+
+    // return cell value as object (boxed), prefer primitive getters where possible
+    if ( isNull( dataColumn, dataRow ) )
+      return null;
+
+    return switch ( m_types[dataColumn] )
+    {
+      case INTEGER -> getInt( dataColumn, dataRow );
+      case LONG -> getLong( dataColumn, dataRow );
+      case DOUBLE -> getDouble( dataColumn, dataRow );
+      case DATE -> new Date( getInt( dataColumn, dataRow ) );
+      case TIME -> Time.fromMilliseconds( getInt( dataColumn, dataRow ) );
+      case TEXT -> getString( dataColumn, dataRow );
+    };
+  }
+
+  /**************************************** processValue *****************************************/
+  @Override
+  protected String processValue( int dataColumn, int dataRow, Object newValue, Boolean setValue )
+  {
+    // mapped file is read-only
+    return "Read-only";
+  }
+
+  /******************************************** write ********************************************/
+  public static void write( Path file, TableDataColumnar data ) throws IOException
+  {
+    // write columnar table data to file in layout that can be memory-mapped
+    int columnCount = data.getColumnCount();
+    int rowCount = data.getRowCount();
+    byte[][] names = new byte[columnCount][];
+    long headerSize = HEADER_SIZE;
+    for ( int column = 0; column < columnCount; column++ )
+    {
+      names[column] = data.getColumnName( column ).getBytes( StandardCharsets.UTF_8 );
+      headerSize += COLUMN_SIZE + align( names[column].length );
+    }
+
+    try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING ) )
+    {
+      // write column data after space for header, recording where each column's data starts
+      var out = new Output( channel, headerSize );
+      long[] offsets = new long[columnCount];
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        ColumnType type = data.getColumnType( column );
+        if ( type == ColumnType.TEXT )
+        {
+          long[] starts = new long[rowCount + 1];
+          for ( int row = 0; row < rowCount; row++ )
+          {
+            String text = data.getString( column, row );
+            starts[row] = text == null ? -out.position() - 1L : out.position();
+            if ( text != null )
+              out.putBytes( text.getBytes( StandardCharsets.UTF_8 ) );
+          }
+          starts[rowCount] = out.position();
+          out.pad();
+          offsets[column] = out.position();
+          for ( long start : starts )
+            out.putLong( start );
+        }
+        else
+        {
+          offsets[column] = out.position();
+          for ( int row = 0; row < rowCount; row++ )
+            if ( type == ColumnType.LONG )
+              out.putLong( data.getLong( column, row ) );
+            else if ( type == ColumnType.DOUBLE )
+              out.putLong( Double.doubleToRawLongBits( data.getDouble( column, row ) ) );
+            else
+              out.putInt( data.getInt( column, row ) );
+        }
+        out.pad();
+      }
+      out.flush();
+
+      // write header at start of file
+      out = new Output( channel, 0L );
+      out.putInt( MAGIC );
+      out.putInt( VERSION );
+      out.putInt( columnCount );
+      out.putInt( 0 );
+      out.putLong( rowCount );
+      for ( int column = 0; column < columnCount; column++ )
+      {
+        out.putInt( data.getColumnType( column ).ordinal() );
+        out.putInt( names[column].length );
+        out.putLong( offsets[column] );
+        out.putBytes( names[column] );
+        out.pad();
+      }
+      out.flush();
+    }
+  }
+
+  /****************************************** checkType ******************************************/
+  private int checkType( int dataColumn, ColumnType type )
+  {
+    // return column if it is of specified type, otherwise throw exception
+    if ( m_types[dataColumn] != type )
+      throw new IllegalArgumentException( "Column " + dataColumn + " is " + m_types[dataColumn] + " not " + type );
+    return dataColumn;
+  }
+
+  /******************************************* readInt *******************************************/
+  private int readInt( long pos )
+  {
+    // return int at file position (aligned so never spans chunks)
+    return m_chunks[(int) ( pos >>> CHUNK_BITS )].getInt( (int) ( pos & CHUNK_MASK ) );
+  }
+
+  /****************************************** readLong *******************************************/
+  private long readLong( long pos )
+  {
+    // return long at file position (aligned so never spans chunks)
+    return m_chunks[(int) ( pos >>> CHUNK_BITS )].getLong( (int) ( pos & CHUNK_MASK ) );
+  }
+
+  /****************************************** readBytes ******************************************/
+  private void readBytes( long pos, byte[] bytes )
+  {
+    // fill byte array from file position, which may span chunks
+    int done = 0;
+    while ( done < bytes.length )
+    {
+      var chunk = m_chunks[(int) ( pos >>> CHUNK_BITS )];
+      int offset = (int) ( pos & CHUNK_MASK );
+      int length = Math.min( bytes.length - done, chunk.capacity() - offset );
+      chunk.get( offset, bytes, done, length );
+      done += length;
+      pos += length;
+    }
+  }
+
+  /******************************************** align ********************************************/
+  private static long align( long size )
+  {
+    // return size rounded up to multiple of 8
+    return ( size + 7L ) & ~7L;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[columns="
+        + getColumnCount() + " rows=" + getRowCount() + " chunks=" + m_chunks.length + "]";
+  }
+}
\ No newline at end of file
@@ -0,0 +1,478 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import javafx.application.Platform;
+import rjc.table.Utils;
+
+/*************************************************************************************************/
+/********** Table data fetched asynchronously in rectangular pages held in an LRU cache ***********/
+/*************************************************************************************************/
+
+public abstract class TableDataPaged extends TableData
+{
+  // cell values of one page, indexed by row then column within page
+  private static class Page
+  {
+    private Object[][] m_values;
+    private long       m_bytes;
+  }
+
+  // least-recently-used map of page keys to pages (eviction done by data to honour memory limit)
+  private static class PageMap extends LinkedHashMap<Long, Page>
+  {
+    private static final long serialVersionUID = Utils.VERSION.hashCode();
+
+    /**************************************** constructor ****************************************/
+    private PageMap()
+    {
+      // create access ordered map
+      super( 64, 0.75f, true );
+    }
+  }
+
+  // each page covers a fixed block of data columns & rows
+  final static public int PAGE_COLUMNS = 16;
+  final static public int PAGE_ROWS    = 64;
+
+  // delay before fetching a failed page again, doubling after each consecutive failure up to maximum
+  final static public int RETRY_MILLIS     = 500;
+  final static public int MAX_RETRY_MILLIS = 30000;
+
+  // queued pages beyond maximum, or queued longer than stale time, are dropped as probably scrolled out of view
+  final static public int MAX_QUEUED   = 256;
+  final static public int STALE_MILLIS = 1000;
+
+  private PageMap                   m_pages         = new PageMap();         // loaded pages
+  private HashSet<Long>             m_requested     = new HashSet<>();       // pages queued, fetching or to retry
+  private LinkedHashMap<Long, Long> m_queued        = new LinkedHashMap<>(); // pages waiting to fetch & time queued
+  private HashMap<Long, Integer>    m_failures      = new HashMap<>();       // consecutive failures of pages
+  private long                      m_bytes;                                 // estimated memory used by loaded pages
+  private long                      m_limit         = 64L << 20;             // maximum estimated memory of loaded pages
+  private int                       m_generation;                            // incremented when pages invalidated
+  private Exception                 m_error;                                 // last exception thrown fetching a page
+
+  private Executor                  m_executor      = Executors.newVirtualThreadPerTaskExecutor(); // fetches pages
+  private int                       m_maxFetches    = 4;                     // maximum pages being fetched at once
+  private int                       m_fetching;                              // number of pages being fetched
+  private Executor                  m_fxThread      = Platform::runLater;    // receives fetched pages
+  private boolean                   m_signalPending;                         // true if region signal scheduled
+  private int                       m_minColumn;                             // region of pages received to signal
+  private int                       m_maxColumn;
+  private int                       m_minRow;
+  private int                       m_maxRow;
+
+  /****************************************** fetchPage ******************************************/
+  // return values of body cells in rectangle indexed by row then column (called on background thread)
+  protected abstract Object[][] fetchPage( int firstColumn, int firstRow, int columnCount, int rowCount )
+      throws Exception;
+
+  /****************************************** isLoaded *******************************************/
+  @Override
+  public boolean isLoaded( int dataColumn, int dataRow )
+  {
+    // return true if body cell value available now, otherwise request its page (FX thread only)
+    long key = key( dataColumn / PAGE_COLUMNS, dataRow / PAGE_ROWS );
+    if ( m_pages.get( key ) != null )
+      return true;
+
+    request( key );
+    return false;
+  }
+
+  /****************************************** getValue *******************************************/
+  @Override
+  public Object getValue( int dataColumn, int dataRow )
+  {
+    // return header values from super class (override for different headers)
+    if ( dataColumn == HEADER || dataRow == HEADER )
+      return super.getValue( dataColumn, dataRow );
+
+    // return body cell value if page loaded, otherwise request page and return null (FX thread only)
+    Page page = m_pages.get( key( dataColumn / PAGE_COLUMNS, dataRow / PAGE_ROWS ) );
+    if ( page == null )
+    {
+      isLoaded( dataColumn, dataRow );
+      return null;
+    }
+    Object[][] values = page.m_values;
+    int row = dataRow % PAGE_ROWS;
+    int column = dataColumn % PAGE_COLUMNS;
+    return row < values.length && values[row] != null && column < values[row].length ? values[row][column] : null;
+  }
+
+  /****************************************** getValues ******************************************/
+  @Override
+  public Object[][] getValues( int[] dataColumns, int[] dataRows )
+  {
+    // return cell values fetching pages synchronously on calling thread, as loaded pages are for FX thread only
+    // pages of the current page row are kept, so rows in data order fetch each page once
+    int columnCount = getColumnCount();
+    int rowCount = getRowCount();
+    var pages = new Object[( columnCount + PAGE_COLUMNS - 1 ) / PAGE_COLUMNS][][];
+    int pageRow = HEADER;
+    var values = new Object[dataRows.length][dataColumns.length];
+    for ( int row = 0; row < dataRows.length; row++ )
+    {
+      int dataRow = dataRows[row];
+      if ( dataRow != HEADER && dataRow / PAGE_ROWS != pageRow )
+      {
+        pageRow = dataRow / PAGE_ROWS;
+        Arrays.fill( pages, null );
+      }
+
+      for ( int column = 0; column < dataColumns.length; column++ )
+      {
+        int dataColumn = dataColumns[column];
+        if ( dataColumn == HEADER || dataRow == HEADER )
+        {
+          values[row][column] = super.getValue( dataColumn, dataRow );
+          continue;
+        }
+
+        int pageColumn = dataColumn / PAGE_COLUMNS;
+        if ( pages[pageColumn] == null )
+          try
+          {
+            int firstColumn = pageColumn * PAGE_COLUMNS;
+            int firstRow = pageRow * PAGE_ROWS;
+            Object[][] fetched = fetchPage( firstColumn, firstRow, Math.min( PAGE_COLUMNS, columnCount - firstColumn ),
+                Math.min( PAGE_ROWS, rowCount - firstRow ) );
+            pages[pageColumn] = fetched == null ? new Object[0][] : fetched;
+          }
+          catch ( Exception exception )
+          {
+            throw new IllegalStateException( "Failed to fetch page " + pageColumn + " " + pageRow, exception );
+          }
+
+        Object[][] page = pages[pageColumn];
+        int pageRowIndex = dataRow % PAGE_ROWS;
+        int pageColumnIndex = dataColumn % PAGE_COLUMNS;
+        if ( pageRowIndex < page.length && page[pageRowIndex] != null && pageColumnIndex < page[pageRowIndex].length )
+          values[row][column] = page[pageRowIndex][pageColumnIndex];
+      }
+    }
+    return values;
+  }
+
+  /*************************************** setColumnCount ****************************************/
+  @Override
+  public void setColumnCount( int columnCount )
+  {
+    // discard pages at or beyond old or new last page column as they cover different columns
+    discard( Math.min( getColumnCount(), columnCount ) / PAGE_COLUMNS, Integer.MAX_VALUE );
+    super.setColumnCount( columnCount );
+  }
+
+  /***************************************** setRowCount *****************************************/
+  @Override
+  public void setRowCount( int rowCount )
+  {
+    // discard pages at or beyond old or new last page row as they cover different rows
+    discard( Integer.MAX_VALUE, Math.min( getRowCount(), rowCount ) / PAGE_ROWS );
+    super.setRowCount( rowCount );
+  }
+
+  /**************************************** estimateBytes ****************************************/
+  protected long estimateBytes( Object[][] values )
+  {
+    // return estimated memory used by page values (override for better estimate of value objects)
+    long bytes = 64L;
+    for ( Object[] row : values )
+      if ( row != null )
+        for ( Object value : row )
+          bytes += value instanceof String text ? 48L + text.length() * 2L : 24L;
+    return bytes;
+  }
+
+  /***************************************** invalidate ******************************************/
+  public void invalidate()
+  {
+    // discard loaded pages and ignore pages being fetched, so all values fetched again (FX thread only)
+    m_pages.clear();
+    m_requested.clear();
+    m_queued.clear();
+    m_failures.clear();
+    m_bytes = 0L;
+    m_generation++;
+    signalTableChanged();
+  }
+
+  /*************************************** setMemoryLimit ****************************************/
+  public void setMemoryLimit( long bytes )
+  {
+    // set maximum estimated memory for loaded pages (each newly received page always kept)
+    m_limit = Math.max( bytes, 0L );
+    evict( m_limit );
+  }
+
+  /*************************************** getMemoryLimit ****************************************/
+  public long getMemoryLimit()
+  {
+    // return maximum estimated memory for loaded pages
+    return m_limit;
+  }
+
+  /**************************************** getMemoryUsed ****************************************/
+  public long getMemoryUsed()
+  {
+    // return estimated memory used by loaded pages
+    return m_bytes;
+  }
+
+  /***************************************** setExecutor *****************************************/
+  public void setExecutor( Executor executor )
+  {
+    // set executor for fetching pages (virtual thread per page by default)
+    m_executor = executor;
+  }
+
+  /**************************************** setMaxFetches ****************************************/
+  public void setMaxFetches( int fetches )
+  {
+    // set maximum number of pages being fetched at once, so slow stores are not flooded when scrolling
+    m_maxFetches = Math.max( fetches, 1 );
+    fetchNext();
+  }
+
+  /**************************************** getMaxFetches ****************************************/
+  public int getMaxFetches()
+  {
+    // return maximum number of pages being fetched at once
+    return m_maxFetches;
+  }
+
+  /****************************************** getError *******************************************/
+  public Exception getError()
+  {
+    // return last exception thrown fetching a page (page then fetched again after a delay), or null
+    return m_error;
+  }
+
+  /******************************************* request *******************************************/
+  private void request( long key )
+  {
+    // queue page unless already being fetched or waiting to retry, moving to most recent if already queued
+    if ( m_queued.remove( key ) == null && !m_requested.add( key ) )
+      return;
+    m_queued.put( key, System.nanoTime() );
+
+    // drop oldest queued page if too many, signalling its region so requested again if still visible
+    if ( m_queued.size() > MAX_QUEUED )
+      drop( m_queued.pollFirstEntry().getKey() );
+    fetchNext();
+  }
+
+  /****************************************** fetchNext ******************************************/
+  private void fetchNext()
+  {
+    // fetch most recently queued pages while fewer than maximum being fetched, dropping any queued too long
+    long stale = System.nanoTime() - STALE_MILLIS * 1_000_000L;
+    while ( m_fetching < m_maxFetches && !m_queued.isEmpty() )
+    {
+      var entry = m_queued.pollLastEntry();
+      if ( entry.getValue() - stale < 0L )
+        drop( entry.getKey() );
+      else
+        fetch( entry.getKey() );
+    }
+  }
+
+  /******************************************** drop *********************************************/
+  private void drop( long key )
+  {
+    // forget queued page, signalling its region so visible cells are redrawn & request it again
+    m_requested.remove( key );
+    addToSignal( key );
+  }
+
+  /******************************************** fetch ********************************************/
+  private void fetch( long key )
+  {
+    // fetch page on background thread
+    m_fetching++;
+    int generation = m_generation;
+    int firstColumn = (int) ( key >>> 32 ) * PAGE_COLUMNS;
+    int firstRow = (int) key * PAGE_ROWS;
+    int columns = Math.max( 0, Math.min( PAGE_COLUMNS, getColumnCount() - firstColumn ) );
+    int rows = Math.max( 0, Math.min( PAGE_ROWS, getRowCount() - firstRow ) );
+    m_executor.execute( () ->
+    {
+      Object[][] values;
+      Exception error = null;
+      try
+      {
+        values = fetchPage( firstColumn, firstRow, columns, rows );
+      }
+      catch ( Exception exception )
+      {
+        values = null;
+        error = exception;
+      }
+
+      Object[][] page = values == null ? new Object[0][] : values;
+      Exception failed = error;
+      m_fxThread.execute( () -> received( key, generation, page, failed ) );
+    } );
+  }
+
+  /****************************************** received *******************************************/
+  private void received( long key, int generation, Object[][] values, Exception error )
+  {
+    // fetch finished so start fetching next queued page
+    m_fetching--;
+    fetchNext();
+
+    // add fetched page as most recently used unless invalidated or discarded since requested (FX thread)
+    if ( generation != m_generation || !m_requested.contains( key ) )
+      return;
+
+    // forget failures of pages retried but not requested again since, as probably scrolled out of view
+    if ( !m_failures.isEmpty() )
+      m_failures.keySet().retainAll( m_requested );
+
+    // failed page is not cached but left requested until retry, with delay doubling on each consecutive failure
+    if ( error != null )
+    {
+      m_error = error;
+      int failures = m_failures.merge( key, 1, Integer::sum );
+      long delay = Math.min( (long) RETRY_MILLIS << Math.min( failures - 1, 16 ), MAX_RETRY_MILLIS );
+      m_executor.execute( () ->
+      {
+        try
+        {
+          Thread.sleep( delay );
+        }
+        catch ( InterruptedException exception )
+        {
+          // retry now as interrupted
+        }
+        m_fxThread.execute( () -> retry( key, generation ) );
+      } );
+      return;
+    }
+
+    m_requested.remove( key );
+    m_failures.remove( key );
+    var page = new Page();
+    page.m_values = values;
+    page.m_bytes = estimateBytes( values );
+    evict( m_limit - page.m_bytes );
+    m_pages.put( key, page );
+    m_bytes += page.m_bytes;
+    addToSignal( key );
+  }
+
+  /******************************************** retry ********************************************/
+  private void retry( long key, int generation )
+  {
+    // allow failed page to be requested again, signalling its region so visible cells redrawn & request it
+    if ( generation != m_generation || !m_failures.containsKey( key ) || !m_requested.remove( key ) )
+      return;
+    addToSignal( key );
+  }
+
+  /***************************************** addToSignal *****************************************/
+  private void addToSignal( long key )
+  {
+    // add page to region to be signalled, signalling once after all pages already received have been added
+    int firstColumn = (int) ( key >>> 32 ) * PAGE_COLUMNS;
+    int firstRow = (int) key * PAGE_ROWS;
+    if ( !m_signalPending )
+    {
+      m_signalPending = true;
+      m_minColumn = firstColumn;
+      m_maxColumn = firstColumn + PAGE_COLUMNS - 1;
+      m_minRow = firstRow;
+      m_maxRow = firstRow + PAGE_ROWS - 1;
+      m_fxThread.execute( () -> signalRegion() );
+    }
+    else
+    {
+      m_minColumn = Math.min( m_minColumn, firstColumn );
+      m_maxColumn = Math.max( m_maxColumn, firstColumn + PAGE_COLUMNS - 1 );
+      m_minRow = Math.min( m_minRow, firstRow );
+      m_maxRow = Math.max( m_maxRow, firstRow + PAGE_ROWS - 1 );
+    }
+  }
+
+  /**************************************** signalRegion *****************************************/
+  private void signalRegion()
+  {
+    // signal region covering pages received since last signal so only affected visible cells redrawn
+    m_signalPending = false;
+    signalRegionChanged( m_minColumn, m_maxColumn, m_minRow, m_maxRow );
+  }
+
+  /******************************************* discard *******************************************/
+  private void discard( int pageColumn, int pageRow )
+  {
+    // discard loaded pages, and ignore pages being fetched, at or beyond page column or at or beyond page row
+    m_requested.removeIf( key -> (int) ( key >>> 32 ) >= pageColumn || (int) (long) key >= pageRow );
+    m_queued.keySet().removeIf( key -> (int) ( key >>> 32 ) >= pageColumn || (int) (long) key >= pageRow );
+    m_failures.keySet().removeIf( key -> (int) ( key >>> 32 ) >= pageColumn || (int) (long) key >= pageRow );
+    var iterator = m_pages.entrySet().iterator();
+    while ( iterator.hasNext() )
+    {
+      var entry = iterator.next();
+      long key = entry.getKey();
+      if ( (int) ( key >>> 32 ) >= pageColumn || (int) key >= pageRow )
+      {
+        m_bytes -= entry.getValue().m_bytes;
+        iterator.remove();
+      }
+    }
+  }
+
+  /******************************************** evict ********************************************/
+  private void evict( long limit )
+  {
+    // remove least recently used pages until memory used is within limit
+    var iterator = m_pages.values().iterator();
+    while ( m_bytes > limit && iterator.hasNext() )
+    {
+      m_bytes -= iterator.next().m_bytes;
+      iterator.remove();
+    }
+  }
+
+  /********************************************* key *********************************************/
+  private static long key( int pageColumn, int pageRow )
+  {
+    // return key for page position
+    return (long) pageColumn << 32 | pageRow & 0xFFFFFFFFL;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[columns="
+        + getColumnCount() + " rows=" + getRowCount() + " pages=" + m_pages.size() + " requested=" + m_requested.size()
+        + " queued=" + m_queued.size() + " fetching=" + m_fetching + " bytes=" + m_bytes + "]";
+  }
+}
\ No newline at end of file
@@ -53,4 +53,20 @@ public class CellDrawerEditable extends CellDrawer
     return CELL_TEXT_INSERTS;
   }
 
+  /**************************************** isDataText ***************************************/
+  @Override
+  protected boolean isDataText()
+  {
+    // return true as getData not overridden, so text can be read directly from data
+    return true;
+  }
+
+  /************************************ isDrawnWithinCell ************************************/
+  @Override
+  protected boolean isDrawnWithinCell()
+  {
+    // return true as only text alignment & insets changed, so drawing keeps within cell like super class
+    return true;
+  }
+
 }
\ No newline at end of file
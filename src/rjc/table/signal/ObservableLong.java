@@ -0,0 +1,104 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.signal;
+
+/*************************************************************************************************/
+/******************************* Observable long & read-only long ********************************/
+/*************************************************************************************************/
+
+public class ObservableLong implements ISignal
+{
+  private long         m_value;    // stored long value
+  private ReadOnlyLong m_readonly; // read-only version of this observable
+
+  public class ReadOnlyLong implements ISignal // provides read-only access
+  {
+    private ObservableLong m_observable;
+
+    public ReadOnlyLong( ObservableLong observable )
+    {
+      // construct and propagate any signals
+      m_observable = observable;
+      m_observable.addListener( ( sender, oldValue ) -> signal( oldValue ) );
+    }
+
+    public long get()
+    {
+      // return value
+      return m_observable.get();
+    }
+
+    @Override
+    public String toString()
+    {
+      return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "="
+          + this.get();
+    }
+  }
+
+  /**************************************** constructor ******************************************/
+  public ObservableLong()
+  {
+    // construct
+  }
+
+  /**************************************** constructor ******************************************/
+  public ObservableLong( long value )
+  {
+    // construct
+    m_value = value;
+  }
+
+  /********************************************* get *********************************************/
+  public long get()
+  {
+    // return value of long
+    return m_value;
+  }
+
+  /********************************************* set *********************************************/
+  public void set( long newValue )
+  {
+    // set value of long, and signal (this, old value) if change
+    if ( newValue != m_value )
+    {
+      long oldValue = m_value;
+      m_value = newValue;
+      signal( oldValue );
+    }
+  }
+
+  /***************************************** getReadOnly *****************************************/
+  public ReadOnlyLong getReadOnly()
+  {
+    // return read-only version of long
+    if ( m_readonly == null )
+      m_readonly = new ReadOnlyLong( this );
+    return m_readonly;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return class string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "=" + this.get();
+  }
+
+}
\ No newline at end of file
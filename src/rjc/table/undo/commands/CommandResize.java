@@ -18,10 +18,10 @@
 
 package rjc.table.undo.commands;
 
-import java.util.HashMap;
 import java.util.HashSet;
 
 import rjc.table.view.TableView;
+import rjc.table.view.axis.SizeExceptions;
 import rjc.table.view.axis.TableAxis;
 
 /*************************************************************************************************/
@@ -30,15 +30,14 @@ import rjc.table.view.axis.TableAxis;
 
 public class CommandResize implements ICommandResize
 {
-  private TableView                 m_view;                 // table view
-  private TableAxis                 m_axis;                 // columns or rows being resized
-  private HashSet<Integer>          m_indexes;              // indexes being resized
-  private String                    m_text;                 // text describing command
+  private TableView        m_view;          // table view
+  private TableAxis        m_axis;          // columns or rows being resized
+  private HashSet<Integer> m_indexes;       // indexes being resized
+  private int[]            m_sorted;        // indexes being resized sorted ascending
+  private String           m_text;          // text describing command
 
-  private HashMap<Integer, Integer> m_oldExceptions;        // old size exceptions before resize
-  private int                       m_newSize;              // new size
-
-  final static private int          NO_EXCEPTION = -999999; // no size exception
+  private SizeExceptions   m_oldExceptions; // old size exceptions before resize
+  private int              m_newSize;       // new size
 
   /**************************************** constructor ******************************************/
   public CommandResize( TableView view, TableAxis axis, HashSet<Integer> selected )
@@ -47,14 +46,17 @@ public class CommandResize implements ICommandResize
     m_view = view;
     m_axis = axis;
     m_indexes = selected;
+    m_sorted = selected.stream().mapToInt( Integer::intValue ).sorted().toArray();
 
     // get any exceptions for selected before resizing starts
-    m_oldExceptions = new HashMap<>();
-    selected.forEach( ( index ) ->
+    var exceptions = axis.getSizeExceptions();
+    m_oldExceptions = new SizeExceptions();
+    for ( int index : m_sorted )
     {
-      int size = axis.getSizeExceptions().getOrDefault( index, NO_EXCEPTION );
-      m_oldExceptions.put( index, size );
-    } );
+      int size = exceptions.get( index, SizeExceptions.NONE );
+      if ( size != SizeExceptions.NONE )
+        m_oldExceptions.put( index, size, SizeExceptions.NONE );
+    }
   }
 
   /***************************************** setNewSize ******************************************/
@@ -70,8 +72,7 @@ public class CommandResize implements ICommandResize
   public void redo()
   {
     // action command
-    for ( int index : m_indexes )
-      m_axis.setIndexSize( index, m_newSize );
+    m_axis.setIndexSizes( m_sorted, m_newSize );
 
     // update layout in case scroll-bar changed and redraw table view
     m_view.updateLayout();
@@ -83,13 +84,7 @@ public class CommandResize implements ICommandResize
   public void undo()
   {
     // revert command - restore old exceptions
-    m_oldExceptions.forEach( ( index, size ) ->
-    {
-      if ( size == NO_EXCEPTION )
-        m_axis.clearIndexSize( index );
-      else
-        m_axis.setIndexSize( index, size );
-    } );
+    m_axis.setIndexSizes( m_sorted, m_oldExceptions );
 
     // update layout in case scroll-bar need changed and redraw table view
     m_view.updateLayout();
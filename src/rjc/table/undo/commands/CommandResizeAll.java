@@ -19,9 +19,8 @@
 
 package rjc.table.undo.commands;
 
-import java.util.HashMap;
-
 import rjc.table.view.TableView;
+import rjc.table.view.axis.SizeExceptions;
 import rjc.table.view.axis.TableAxis;
 
 /*************************************************************************************************/
@@ -30,13 +29,13 @@ import rjc.table.view.axis.TableAxis;
 
 public class CommandResizeAll implements ICommandResize
 {
-  private TableView                 m_view;          // table view
-  private TableAxis                 m_axis;          // columns or rows being resized
-  private String                    m_text;          // text describing command
+  private TableView      m_view;          // table view
+  private TableAxis      m_axis;          // columns or rows being resized
+  private String         m_text;          // text describing command
 
-  private HashMap<Integer, Integer> m_oldExceptions; // old size exceptions before resize
-  private int                       m_oldDefault;    // old default before resize
-  private int                       m_newDefault;    // new default
+  private SizeExceptions m_oldExceptions; // old size exceptions before resize
+  private int            m_oldDefault;    // old default before resize
+  private int            m_newDefault;    // new default
 
   /**************************************** constructor ******************************************/
   public CommandResizeAll( TableView view, TableAxis axis )
@@ -47,8 +46,7 @@ public class CommandResizeAll implements ICommandResize
 
     // get old default size and exceptions before resizing starts
     m_oldDefault = axis.getDefaultSize();
-    m_oldExceptions = new HashMap<>();
-    axis.getSizeExceptions().forEach( ( index, size ) -> m_oldExceptions.put( index, size ) );
+    m_oldExceptions = axis.getSizeExceptions();
   }
 
   /***************************************** setNewSize ******************************************/
@@ -78,7 +76,7 @@ public class CommandResizeAll implements ICommandResize
   {
     // revert command
     m_axis.setDefaultSize( m_oldDefault );
-    m_oldExceptions.forEach( ( index, size ) -> m_axis.setIndexSize( index, size ) );
+    m_axis.setSizeExceptions( m_oldExceptions );
 
     // update layout in case scroll-bar need changed and redraw table view
     m_view.updateLayout();
@@ -32,6 +32,8 @@ public class Colours
 
   public static final Color CELL_BORDER              = Color.gray( 0.8 );
   public static final Color CELL_DEFAULT_FILL        = Color.WHITE;
+  public static final Color CELL_HEATMAP_FILL        = Color.rgb( 0, 90, 180 );       // dark blue
+  public static final Color CELL_PLACEHOLDER         = Color.gray( 0.9 );             // bar while loading
 
   public static final Color HEADER_DEFAULT_FILL      = Color.gray( 0.95 );
   public static final Color HEADER_FOCUS_FILL        = Color.LIGHTYELLOW;
@@ -0,0 +1,249 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import rjc.table.view.axis.TableAxis;
+
+/*************************************************************************************************/
+/*********** Pending redraw requests coalesced into rectangles using primitive arrays ************/
+/*************************************************************************************************/
+
+public class DirtyRegion
+{
+  // functional interface to receive each coalesced rectangle of cells (inclusive view indexes)
+  public interface IRectConsumer
+  {
+    void accept( int minColumn, int maxColumn, int minRow, int maxRow );
+  }
+
+  // maximum cell requests tracked before caller should redraw everything instead
+  final static public int CELLS_MAX = 1 << 16;
+
+  private long[]          m_cells   = new long[64]; // requested cells packed to sort by column then row
+  private int             m_cellCount;
+  private int[]           m_columns = new int[16];  // requested columns
+  private int             m_columnCount;
+  private int[]           m_rows    = new int[16];  // requested rows
+  private int             m_rowCount;
+
+  private int[]           m_rects   = new int[64];  // coalesced rectangles as min & max column, min & max row
+  private int             m_rectCount;
+
+  /******************************************* addCell *******************************************/
+  public boolean addCell( int column, int row )
+  {
+    // add cell request, returning false if too many cell requests to track
+    if ( m_cellCount == CELLS_MAX )
+      return false;
+
+    if ( m_cellCount == m_cells.length )
+      m_cells = Arrays.copyOf( m_cells, m_cellCount * 2 );
+    m_cells[m_cellCount++] = (long) column << 32 | ( row ^ Integer.MIN_VALUE ) & 0xFFFFFFFFL;
+    return true;
+  }
+
+  /****************************************** addColumn ******************************************/
+  public void addColumn( int column )
+  {
+    // add column request
+    if ( m_columnCount == m_columns.length )
+      m_columns = Arrays.copyOf( m_columns, m_columnCount * 2 );
+    m_columns[m_columnCount++] = column;
+  }
+
+  /******************************************* addRow ********************************************/
+  public void addRow( int row )
+  {
+    // add row request
+    if ( m_rowCount == m_rows.length )
+      m_rows = Arrays.copyOf( m_rows, m_rowCount * 2 );
+    m_rows[m_rowCount++] = row;
+  }
+
+  /******************************************* isEmpty *******************************************/
+  public boolean isEmpty()
+  {
+    // return true if no requests
+    return m_cellCount == 0 && m_columnCount == 0 && m_rowCount == 0;
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all requests and coalesced rectangles
+    m_cellCount = 0;
+    m_columnCount = 0;
+    m_rowCount = 0;
+    m_rectCount = 0;
+  }
+
+  /****************************************** coalesce *******************************************/
+  public void coalesce( int minColumn, int maxColumn, int minRow, int maxRow )
+  {
+    // drop requests outside visible body range (headers always visible) and remove duplicates
+    m_columnCount = sortUnique( m_columns, m_columnCount, minColumn, maxColumn );
+    m_rowCount = sortUnique( m_rows, m_rowCount, minRow, maxRow );
+
+    // drop cells not visible or already covered by a requested column or row
+    int count = 0;
+    for ( int index = 0; index < m_cellCount; index++ )
+    {
+      int column = (int) ( m_cells[index] >> 32 );
+      int row = (int) m_cells[index] ^ Integer.MIN_VALUE;
+      if ( visible( column, minColumn, maxColumn ) && visible( row, minRow, maxRow )
+          && !contains( m_columns, m_columnCount, column ) && !contains( m_rows, m_rowCount, row ) )
+        m_cells[count++] = m_cells[index];
+    }
+    Arrays.sort( m_cells, 0, count );
+
+    // merge cells into vertical runs per column, and runs into rectangles with identical run in previous column
+    m_rectCount = 0;
+    int[] previous = new int[16]; // rectangles ending at previous column in min row order
+    int previousCount = 0;
+    int[] current = new int[16];  // rectangles ending at current column in min row order
+    int currentCount = 0;
+    int currentColumn = Integer.MIN_VALUE;
+    int pos = 0;
+    int index = 0;
+    while ( index < count )
+    {
+      // find vertical run of consecutive rows in same column (ignoring duplicates)
+      int column = (int) ( m_cells[index] >> 32 );
+      int startRow = (int) m_cells[index] ^ Integer.MIN_VALUE;
+      int endRow = startRow;
+      index++;
+      while ( index < count && (int) ( m_cells[index] >> 32 ) == column
+          && ( (int) m_cells[index] ^ Integer.MIN_VALUE ) <= endRow + 1 )
+        endRow = (int) m_cells[index++] ^ Integer.MIN_VALUE;
+
+      // moving to new column, so rectangles ending at current column become previous
+      if ( column != currentColumn )
+      {
+        if ( column == currentColumn + 1 )
+        {
+          int[] swap = previous;
+          previous = current;
+          previousCount = currentCount;
+          current = swap;
+        }
+        else
+          previousCount = 0;
+        currentCount = 0;
+        currentColumn = column;
+        pos = 0;
+      }
+
+      // extend rectangle from previous column if same rows, otherwise start new rectangle
+      while ( pos < previousCount && m_rects[previous[pos] * 4 + 2] < startRow )
+        pos++;
+      int rect;
+      if ( pos < previousCount && m_rects[previous[pos] * 4 + 2] == startRow
+          && m_rects[previous[pos] * 4 + 3] == endRow )
+      {
+        rect = previous[pos++];
+        m_rects[rect * 4 + 1] = column;
+      }
+      else
+        rect = addRect( column, column, startRow, endRow );
+
+      if ( currentCount == current.length )
+        current = Arrays.copyOf( current, currentCount * 2 );
+      current[currentCount++] = rect;
+    }
+    m_cellCount = count;
+  }
+
+  /**************************************** forEachColumn ****************************************/
+  public void forEachColumn( IntConsumer action )
+  {
+    // perform action for each requested column (after coalesce)
+    for ( int index = 0; index < m_columnCount; index++ )
+      action.accept( m_columns[index] );
+  }
+
+  /***************************************** forEachRow ******************************************/
+  public void forEachRow( IntConsumer action )
+  {
+    // perform action for each requested row (after coalesce)
+    for ( int index = 0; index < m_rowCount; index++ )
+      action.accept( m_rows[index] );
+  }
+
+  /***************************************** forEachRect *****************************************/
+  public void forEachRect( IRectConsumer action )
+  {
+    // perform action for each coalesced rectangle of requested cells (after coalesce)
+    for ( int rect = 0; rect < m_rectCount; rect++ )
+      action.accept( m_rects[rect * 4], m_rects[rect * 4 + 1], m_rects[rect * 4 + 2], m_rects[rect * 4 + 3] );
+  }
+
+  /******************************************* addRect *******************************************/
+  private int addRect( int minColumn, int maxColumn, int minRow, int maxRow )
+  {
+    // add coalesced rectangle returning its number
+    if ( m_rectCount * 4 == m_rects.length )
+      m_rects = Arrays.copyOf( m_rects, m_rects.length * 2 );
+    int pos = m_rectCount * 4;
+    m_rects[pos] = minColumn;
+    m_rects[pos + 1] = maxColumn;
+    m_rects[pos + 2] = minRow;
+    m_rects[pos + 3] = maxRow;
+    return m_rectCount++;
+  }
+
+  /***************************************** sortUnique ******************************************/
+  private static int sortUnique( int[] indexes, int count, int min, int max )
+  {
+    // sort indexes removing duplicates and those not visible, returning new count
+    Arrays.sort( indexes, 0, count );
+    int unique = 0;
+    for ( int pos = 0; pos < count; pos++ )
+      if ( visible( indexes[pos], min, max ) && ( unique == 0 || indexes[unique - 1] != indexes[pos] ) )
+        indexes[unique++] = indexes[pos];
+
+    return unique;
+  }
+
+  /****************************************** contains *******************************************/
+  private static boolean contains( int[] sorted, int count, int index )
+  {
+    // return true if sorted indexes contain index
+    return count > 0 && Arrays.binarySearch( sorted, 0, count, index ) >= 0;
+  }
+
+  /******************************************* visible *******************************************/
+  private static boolean visible( int index, int min, int max )
+  {
+    // return true if header or body index within visible range
+    return index == TableAxis.HEADER || ( index >= min && index <= max );
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[cells="
+        + m_cellCount + " columns=" + m_columnCount + " rows=" + m_rowCount + " rects=" + m_rectCount + "]";
+  }
+
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/*************************************************************************************************/
+/******************* JDK Flight Recorder event for one table-view redraw pass ********************/
+/*************************************************************************************************/
+
+@Name( "rjc.table.Redraw" )
+@Label( "Table Redraw" )
+@Category( "JTableFX" )
+@Description( "Redraw of requested parts of a table-view canvas" )
+@StackTrace( false )
+public class RedrawEvent extends jdk.jfr.Event
+{
+  @Label( "Full Redraw" )
+  boolean full;
+
+  @Label( "Cells Drawn" )
+  long    cells;
+
+  @Label( "Text Layouts Computed" )
+  long    textLayouts;
+
+  @Label( "Value Time" )
+  @Timespan( Timespan.NANOSECONDS )
+  long    valueTime;
+}
\ No newline at end of file
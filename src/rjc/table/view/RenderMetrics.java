@@ -0,0 +1,189 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view;
+
+import rjc.table.signal.ISignal;
+import rjc.table.view.cell.LayoutCache;
+
+/*************************************************************************************************/
+/************** Observable counters & timers of table-view rendering for diagnosis ***************/
+/*************************************************************************************************/
+
+public class RenderMetrics implements ISignal
+{
+  private boolean     m_enabled;         // counters & timers only updated when enabled
+  private LayoutCache m_layouts;         // text layout cache of table-view, counting layouts computed
+
+  private long        m_fullRedraws;     // number of full redraws
+  private long        m_partialRedraws;  // number of redraws of just requested parts
+  private long        m_cellsDrawn;      // number of cells drawn
+  private long        m_textLayouts;     // number of cell text layouts computed (not from layout cache)
+  private long        m_valueNanos;      // nanoseconds getting cell values from table data
+  private long        m_drawNanos;       // nanoseconds redrawing canvas
+
+  private long        m_passStart;       // start time of current redraw pass
+  private long        m_passCells;       // cells drawn at start of current redraw pass
+  private long        m_passLayouts;     // text layouts computed at start of current redraw pass
+  private long        m_passValueNanos;  // value nanoseconds at start of current redraw pass
+  private RedrawEvent m_event;           // flight recorder event for current redraw pass
+
+  /***************************************** constructor *****************************************/
+  RenderMetrics( LayoutCache layouts )
+  {
+    // create metrics for table-view using specified text layout cache
+    m_layouts = layouts;
+  }
+
+  /***************************************** setEnabled ******************************************/
+  public void setEnabled( boolean enabled )
+  {
+    // set whether counters & timers are updated (nothing is allocated or timed when disabled)
+    m_enabled = enabled;
+  }
+
+  /****************************************** isEnabled ******************************************/
+  public boolean isEnabled()
+  {
+    // return true if counters & timers are updated
+    return m_enabled;
+  }
+
+  /**************************************** isPassActive *****************************************/
+  boolean isPassActive()
+  {
+    // return true if redraw pass is being timed
+    return m_event != null;
+  }
+
+  /******************************************** reset ********************************************/
+  public void reset()
+  {
+    // reset all counters & timers to zero
+    m_fullRedraws = 0L;
+    m_partialRedraws = 0L;
+    m_cellsDrawn = 0L;
+    m_textLayouts = 0L;
+    m_valueNanos = 0L;
+    m_drawNanos = 0L;
+    signal();
+  }
+
+  /****************************************** beginPass ******************************************/
+  void beginPass()
+  {
+    // start timing a redraw pass (only called when enabled)
+    m_event = new RedrawEvent();
+    m_event.begin();
+    m_passCells = m_cellsDrawn;
+    m_passLayouts = m_layouts.getLayoutCount();
+    m_passValueNanos = m_valueNanos;
+    m_passStart = System.nanoTime();
+  }
+
+  /******************************************* endPass *******************************************/
+  void endPass( boolean full )
+  {
+    // finish timing a redraw pass, commit flight recorder event, and signal listeners
+    m_drawNanos += System.nanoTime() - m_passStart;
+    m_textLayouts += m_layouts.getLayoutCount() - m_passLayouts;
+    if ( full )
+      m_fullRedraws++;
+    else
+      m_partialRedraws++;
+
+    m_event.end();
+    if ( m_event.shouldCommit() )
+    {
+      m_event.full = full;
+      m_event.cells = m_cellsDrawn - m_passCells;
+      m_event.textLayouts = m_layouts.getLayoutCount() - m_passLayouts;
+      m_event.valueTime = m_valueNanos - m_passValueNanos;
+      m_event.commit();
+    }
+    m_event = null;
+    signal();
+  }
+
+  /****************************************** countCell ******************************************/
+  public void countCell()
+  {
+    // count a cell drawn
+    m_cellsDrawn++;
+  }
+
+  /**************************************** addValueTime *****************************************/
+  public void addValueTime( long nanos )
+  {
+    // add time spent getting a cell value from table data
+    m_valueNanos += nanos;
+  }
+
+  /*************************************** getFullRedraws ****************************************/
+  public long getFullRedraws()
+  {
+    // return number of full redraws
+    return m_fullRedraws;
+  }
+
+  /************************************** getPartialRedraws **************************************/
+  public long getPartialRedraws()
+  {
+    // return number of redraws of just requested parts
+    return m_partialRedraws;
+  }
+
+  /**************************************** getCellsDrawn ****************************************/
+  public long getCellsDrawn()
+  {
+    // return number of cells drawn
+    return m_cellsDrawn;
+  }
+
+  /*************************************** getTextLayouts ****************************************/
+  public long getTextLayouts()
+  {
+    // return number of cell text layouts computed (not found in layout cache)
+    return m_textLayouts;
+  }
+
+  /**************************************** getValueNanos ****************************************/
+  public long getValueNanos()
+  {
+    // return nanoseconds spent getting cell values from table data
+    return m_valueNanos;
+  }
+
+  /**************************************** getDrawNanos *****************************************/
+  public long getDrawNanos()
+  {
+    // return nanoseconds spent redrawing canvas (includes value time)
+    return m_drawNanos;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[enabled="
+        + m_enabled + " full=" + m_fullRedraws + " partial=" + m_partialRedraws + " cells=" + m_cellsDrawn
+        + " layouts=" + m_textLayouts + " valueNanos=" + m_valueNanos + " drawNanos=" + m_drawNanos + "]";
+  }
+
+}
\ No newline at end of file
@@ -18,14 +18,21 @@
 
 package rjc.table.view;
 
-import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
 import javafx.scene.text.FontSmoothingType;
+import javafx.scene.transform.Transform;
 import rjc.table.view.axis.TableAxis;
 import rjc.table.view.cell.CellDrawer;
+import rjc.table.view.cell.DrawBatch;
 
 /*************************************************************************************************/
 /************************** Canvas for table-views with redraw methods ***************************/
@@ -39,20 +46,40 @@ public class TableCanvasDraw extends Canvas
   private AtomicBoolean    m_redrawIsRequested;                      // flag if redraw has been scheduled
   private boolean          m_fullRedraw;                             // full view redraw (headers & body including overlay)
   private boolean          m_overlayRedraw;                          // just overlay redraw
-  private HashSet<Integer> m_columns;                                // requested column indexes
-  private HashSet<Integer> m_rows;                                   // requested row indexes
-  private HashSet<Long>    m_cells;                                  // long = (long) column << 32 | row & 0xFFFFFFFFL
-  private int              m_redrawCount;                            // count to ensure canvas cleared periodically
+  private boolean          m_scrollRedraw;                           // shift drawn body by scroll change & draw exposed
+  private DirtyRegion      m_dirty;                                  // requested cells, columns & rows
+
+  private long             m_drawnScrollX;                           // horizontal scroll when canvas was drawn
+  private long             m_drawnScrollY;                           // vertical scroll when canvas was drawn
+  private double           m_drawnWidth;                             // canvas width when canvas was drawn
+  private double           m_drawnHeight;                            // canvas height when canvas was drawn
+  private WritableImage    m_scrollImage;                            // reused snapshot for shifting drawn body
+  private double           m_shiftNanos;                             // average nanoseconds per pixel shifting body
+  private double           m_drawNanos;                              // average nanoseconds per pixel full redraw
+  private int              m_shiftSkips;                             // scrolls redrawn as shifting measured slower
+  private TileCache        m_tiles;                                  // optional cache of rendered body tiles
+  private Canvas           m_tileCanvas;                             // off-screen canvas for rendering tiles
+  private DrawBatch        m_batch;                                  // draw operations grouped by paint & font
+
+  private long             m_frameBudget;                            // nanoseconds drawing per pulse (zero no limit)
+  private int[]            m_progressColumns = new int[16];          // columns still to draw in priority order
+  private int              m_progressNext;                           // position of next column to draw
+  private int              m_progressCount;                          // number of columns queued to draw
+  private AnimationTimer   m_progressTimer;                          // continues progressive redraw each pulse
 
   // column & row index starts at 0 for table body, index of -1 is for axis header
   final static public int  INVALID             = TableAxis.INVALID;
   final static public int  HEADER              = TableAxis.HEADER;
   final static public int  FIRSTCELL           = TableAxis.FIRSTCELL;
 
-  final static private int REDRAW_COUNT_MAX    = 1000;
-  final static private int REDRAW_COUNT_CELL   = 1;
-  final static private int REDRAW_COUNT_COLUMN = 20;
-  final static private int REDRAW_COUNT_ROW    = 5;
+  // full redraw if requested cells, columns & rows cover more than this fraction of the canvas area
+  final static private double FULL_REDRAW_AREA = 0.5;
+
+  // scroll changes larger than this fraction of the body are fully redrawn as little can be reused
+  final static private double SCROLL_REUSE_MAX = 0.75;
+
+  // scrolls fully redrawn while shifting measured slower, before shifting tried again in case cost has changed
+  final static private int    SHIFT_RETRY      = 32;
 
   /**************************************** constructor ******************************************/
   public TableCanvasDraw( TableView tableView )
@@ -61,9 +88,9 @@ public class TableCanvasDraw extends Canvas
     m_view = tableView;
     m_overlay = new TableOverlay( tableView );
     m_redrawIsRequested = new AtomicBoolean();
-    m_columns = new HashSet<>();
-    m_rows = new HashSet<>();
-    m_cells = new HashSet<>();
+    m_dirty = new DirtyRegion();
+    m_tiles = new TileCache();
+    m_batch = new DrawBatch();
 
     getGraphicsContext2D().setFontSmoothingType( FontSmoothingType.LCD );
   }
@@ -71,13 +98,24 @@ public class TableCanvasDraw extends Canvas
   /******************************************* redraw ********************************************/
   public void redraw()
   {
-    // request redraw full visible table (headers and body)
+    // request redraw full visible table (headers and body) discarding any cached tiles
+    m_tiles.clear();
     if ( m_fullRedraw )
       return;
     m_fullRedraw = true;
     schedule();
   }
 
+  /*************************************** redrawScrolled ****************************************/
+  public void redrawScrolled()
+  {
+    // request redraw after scroll by shifting already drawn body and drawing newly exposed cells
+    if ( m_scrollRedraw || m_fullRedraw )
+      return;
+    m_scrollRedraw = true;
+    schedule();
+  }
+
   /******************************************* redrawOverlay ********************************************/
   public void redrawOverlay()
   {
@@ -92,10 +130,11 @@ public class TableCanvasDraw extends Canvas
   public void redrawCell( int columnIndex, int rowIndex )
   {
     // request redraw specified table body or header cell
+    m_tiles.invalidateCell( columnIndex, rowIndex );
     if ( m_fullRedraw )
       return;
-    if ( m_cells.add( (long) columnIndex << 32 | rowIndex & 0xFFFFFFFFL ) )
-      m_redrawCount += REDRAW_COUNT_CELL;
+    if ( !m_dirty.addCell( columnIndex, rowIndex ) )
+      m_fullRedraw = true;
     schedule();
   }
 
@@ -103,10 +142,10 @@ public class TableCanvasDraw extends Canvas
   public void redrawColumn( int columnIndex )
   {
     // request redraw visible bit of column including header
+    m_tiles.invalidateColumn( columnIndex );
     if ( m_fullRedraw )
       return;
-    if ( m_columns.add( columnIndex ) )
-      m_redrawCount += REDRAW_COUNT_COLUMN;
+    m_dirty.addColumn( columnIndex );
     schedule();
   }
 
@@ -114,10 +153,10 @@ public class TableCanvasDraw extends Canvas
   public void redrawRow( int rowIndex )
   {
     // request redraw visible bit of row including header
+    m_tiles.invalidateRow( rowIndex );
     if ( m_fullRedraw )
       return;
-    if ( m_rows.add( rowIndex ) )
-      m_redrawCount += REDRAW_COUNT_ROW;
+    m_dirty.addRow( rowIndex );
     schedule();
   }
 
@@ -134,68 +173,459 @@ public class TableCanvasDraw extends Canvas
   {
     // redraw parts of table or overlay that have been requested
     m_redrawIsRequested.set( false );
+    RenderMetrics metrics = m_view.getMetrics();
+    boolean measure = metrics.isEnabled();
+    if ( measure )
+      metrics.beginPass();
 
-    // redraw overlay if requested or full redraw requested
-    if ( m_overlayRedraw || m_fullRedraw )
+    // redraw overlay if full redraw requested or scrolled, otherwise just its changes if requested
+    if ( m_fullRedraw || m_scrollRedraw )
       getOverlay().redrawNow();
+    else if ( m_overlayRedraw )
+      getOverlay().redrawChanges();
+
+    // shift drawn body if scrolled, falling back to full redraw if shift not possible
+    // (partly drawn canvas from progressive redraw cannot be shifted so is restarted)
+    if ( m_scrollRedraw && !m_fullRedraw )
+      m_fullRedraw = isProgressing() || !scrollNow();
 
-    // ensure full canvas is redrawn if many columns/rows/cells are redrawn
-    if ( m_fullRedraw || m_redrawCount > REDRAW_COUNT_MAX )
+    // coalesce requested cells into visible rectangles, and redraw everything if that covers much of canvas
+    if ( !m_fullRedraw && !m_dirty.isEmpty() )
+    {
+      coalesceDirty();
+      m_fullRedraw = getDirtyArea() > getWidth() * getHeight() * FULL_REDRAW_AREA;
+    }
+
+    if ( m_fullRedraw )
     {
       // full redraw requested so don't need to redraw anything else
       redrawNow();
-      m_redrawCount = 0;
     }
     else
     {
-      // redraw requested cells that aren't covered by requested columns & rows
-      for ( long hash : m_cells )
-      {
-        int columnIndex = (int) ( hash >> 32 );
-        int rowIndex = (int) hash;
-        if ( !m_columns.contains( columnIndex ) && !m_rows.contains( rowIndex ) )
-          redrawCellNow( columnIndex, rowIndex );
-      }
-
-      // redraw requested columns & rows
-      for ( int columnIndex : m_columns )
-        redrawColumnNow( columnIndex );
-      for ( int rowIndex : m_rows )
-        redrawRowNow( rowIndex );
+      // redraw requested cells (not covered by requested columns & rows) then requested columns & rows
+      m_dirty.forEachRect( ( minColumn, maxColumn, minRow, maxRow ) -> redrawCellsNow( minColumn, maxColumn,
+          minRow, maxRow ) );
+      m_dirty.forEachColumn( columnIndex -> redrawColumnNow( columnIndex ) );
+      m_dirty.forEachRow( rowIndex -> redrawRowNow( rowIndex ) );
     }
 
     // clear requests
+    if ( measure )
+      metrics.endPass( m_fullRedraw );
     m_fullRedraw = false;
     m_overlayRedraw = false;
-    m_columns.clear();
-    m_rows.clear();
-    m_cells.clear();
+    m_scrollRedraw = false;
+    m_dirty.clear();
+  }
+
+  /**************************************** coalesceDirty ****************************************/
+  private void coalesceDirty()
+  {
+    // coalesce requested cells into rectangles dropping requests outside visible columns & rows
+    int maxColumn = m_view.getData().getColumnCount() - 1;
+    int maxRow = m_view.getData().getRowCount() - 1;
+    int minColumn = Math.max( m_view.getColumnIndex( m_view.getHeaderWidth() ), FIRSTCELL );
+    int minRow = Math.max( m_view.getRowIndex( m_view.getHeaderHeight() ), FIRSTCELL );
+    maxColumn = Math.min( m_view.getColumnIndex( (int) getWidth() ), maxColumn );
+    maxRow = Math.min( m_view.getRowIndex( (int) getHeight() ), maxRow );
+    m_dirty.coalesce( minColumn, maxColumn, minRow, maxRow );
+  }
+
+  /**************************************** getDirtyArea *****************************************/
+  private double getDirtyArea()
+  {
+    // return approximate canvas area in pixels covered by coalesced requests
+    double[] area = new double[1];
+    double width = getWidth();
+    double height = getHeight();
+    m_dirty.forEachRect( ( minColumn, maxColumn, minRow, maxRow ) ->
+    {
+      double w = Math.min( m_view.getColumnStartX( maxColumn + 1 ), width )
+          - Math.max( m_view.getColumnStartX( minColumn ), 0 );
+      double h = Math.min( m_view.getRowStartY( maxRow + 1 ), height ) - Math.max( m_view.getRowStartY( minRow ), 0 );
+      area[0] += Math.max( w, 0.0 ) * Math.max( h, 0.0 );
+    } );
+    m_dirty.forEachColumn( columnIndex -> area[0] += m_view.getColumnsAxis().getIndexPixels( columnIndex ) * height );
+    m_dirty.forEachRow( rowIndex -> area[0] += m_view.getRowsAxis().getIndexPixels( rowIndex ) * width );
+
+    return area[0];
   }
 
   /****************************************** redrawNow ******************************************/
   private void redrawNow()
   {
-    // request complete redraw of table canvas
+    // request complete redraw of table canvas, cancelling any outdated progressive redraw
+    m_progressNext = m_progressCount;
+    m_drawnScrollX = m_view.getHorizontalScrollBar().getScroll();
+    m_drawnScrollY = m_view.getVerticalScrollBar().getScroll();
+    m_drawnWidth = getWidth();
+    m_drawnHeight = getHeight();
     if ( isVisible() && getHeight() > 0.0 )
     {
       getGraphicsContext2D().clearRect( 0.0, 0.0, getWidth(), getHeight() );
       int minColumnPos = m_view.getColumnIndex( m_view.getHeaderWidth() );
       int maxColumnPos = m_view.getColumnIndex( (int) getWidth() );
-      redrawColumnsNow( minColumnPos, maxColumnPos );
+
+      // fit text layout cache to hold every visible cell, so next full redraw finds all layouts cached
+      int columns = Math.min( maxColumnPos, m_view.getData().getColumnCount() - 1 )
+          - Math.max( minColumnPos, FIRSTCELL );
+      int rows = Math.min( m_view.getRowIndex( (int) getHeight() ), m_view.getData().getRowCount() - 1 )
+          - Math.max( m_view.getRowIndex( m_view.getHeaderHeight() ), FIRSTCELL );
+      m_view.getLayoutCache().fitCapacity( ( Math.max( columns, 0 ) + 2 ) * ( Math.max( rows, 0 ) + 2 ) );
+      if ( m_frameBudget > 0L )
+      {
+        redrawProgressive( minColumnPos, maxColumnPos );
+        return;
+      }
+
+      long start = System.nanoTime();
+      if ( m_tiles.isEnabled() )
+      {
+        drawTiles( m_view.getHeaderWidth(), m_view.getHeaderHeight(), (int) getWidth(), (int) getHeight() );
+        redrawRowNow( HEADER );
+        redrawColumnNow( HEADER );
+      }
+      else
+      {
+        redrawColumnsNow( minColumnPos, maxColumnPos );
+        redrawColumnNow( HEADER );
+      }
+      m_drawNanos = average( m_drawNanos, ( System.nanoTime() - start ) / ( getWidth() * getHeight() ) );
+    }
+  }
+
+  /******************************************* average *******************************************/
+  private static double average( double average, double sample )
+  {
+    // return running average of timing samples, weighted towards recent samples
+    return average == 0.0 ? sample : average * 0.75 + sample * 0.25;
+  }
+
+  /************************************** redrawProgressive **************************************/
+  private void redrawProgressive( int minColumn, int maxColumn )
+  {
+    // queue visible body columns nearest focus column first, with row header last for corner
+    int max = m_view.getData().getColumnCount() - 1;
+    if ( minColumn < FIRSTCELL )
+      minColumn = FIRSTCELL;
+    if ( maxColumn > max )
+      maxColumn = max;
+
+    m_progressNext = 0;
+    m_progressCount = 0;
+    if ( m_progressColumns.length < maxColumn - minColumn + 2 )
+      m_progressColumns = new int[maxColumn - minColumn + 2];
+    if ( minColumn <= maxColumn )
+    {
+      int focus = Math.min( Math.max( m_view.getFocusCell().getColumn(), minColumn ), maxColumn );
+      m_progressColumns[m_progressCount++] = focus;
+      for ( int offset = 1; focus - offset >= minColumn || focus + offset <= maxColumn; offset++ )
+      {
+        if ( focus + offset <= maxColumn )
+          m_progressColumns[m_progressCount++] = focus + offset;
+        if ( focus - offset >= minColumn )
+          m_progressColumns[m_progressCount++] = focus - offset;
+      }
+    }
+    m_progressColumns[m_progressCount++] = HEADER;
+
+    // draw as much as budget allows now, and continue on following pulses until all drawn
+    if ( m_progressTimer == null )
+      m_progressTimer = new AnimationTimer()
+      {
+        @Override
+        public void handle( long now )
+        {
+          // continue progressive redraw on each pulse
+          continueProgressive();
+        }
+      };
+    continueProgressive();
+    if ( isProgressing() )
+      m_progressTimer.start();
+  }
+
+  /************************************* continueProgressive *************************************/
+  private void continueProgressive()
+  {
+    // draw queued columns until this pulse's budget used (always at least one so redraw completes)
+    if ( isProgressing() && isVisible() )
+    {
+      RenderMetrics metrics = m_view.getMetrics();
+      boolean measure = metrics.isEnabled() && !metrics.isPassActive();
+      if ( measure )
+        metrics.beginPass();
+      long deadline = System.nanoTime() + m_frameBudget;
+      do
+      {
+        redrawColumnNow( m_progressColumns[m_progressNext++] );
+      }
+      while ( isProgressing() && System.nanoTime() < deadline );
+      if ( measure )
+        metrics.endPass( false );
+    }
+    else
+      m_progressNext = m_progressCount;
+
+    // stop continuing on pulses once all drawn or cancelled
+    if ( !isProgressing() && m_progressTimer != null )
+      m_progressTimer.stop();
+  }
+
+  /**************************************** isProgressing ****************************************/
+  public boolean isProgressing()
+  {
+    // return true if progressive redraw has columns still to draw
+    return m_progressNext < m_progressCount;
+  }
+
+  /*************************************** setFrameBudget ****************************************/
+  public void setFrameBudget( long nanos )
+  {
+    // set drawing time per pulse for full redraws, spreading remainder over later pulses (zero or less for no limit)
+    m_frameBudget = Math.max( nanos, 0L );
+    if ( m_frameBudget == 0L && isProgressing() )
+      redraw();
+  }
+
+  /*************************************** getFrameBudget ****************************************/
+  public long getFrameBudget()
+  {
+    // return drawing time per pulse for full redraws in nanoseconds (zero for no limit)
+    return m_frameBudget;
+  }
+
+  /****************************************** scrollNow ******************************************/
+  private boolean scrollNow()
+  {
+    // shift drawn body by change in scroll and draw newly exposed cells, returning false if full redraw needed
+    long scrollX = m_view.getHorizontalScrollBar().getScroll();
+    long scrollY = m_view.getVerticalScrollBar().getScroll();
+    long dx = m_drawnScrollX - scrollX;
+    long dy = m_drawnScrollY - scrollY;
+    if ( dx == 0 && dy == 0 )
+      return true;
+
+    // check canvas is showing & same size as drawn, and scroll change small enough for shifting to be worthwhile
+    int headerWidth = m_view.getHeaderWidth();
+    int headerHeight = m_view.getHeaderHeight();
+    int width = (int) getWidth();
+    int height = (int) getHeight();
+    int bodyWidth = width - headerWidth;
+    int bodyHeight = height - headerHeight;
+    if ( !isVisible() || getScene() == null || bodyWidth <= 0 || bodyHeight <= 0 || getWidth() != m_drawnWidth
+        || getHeight() != m_drawnHeight || Math.abs( dx ) > bodyWidth * SCROLL_REUSE_MAX
+        || Math.abs( dy ) > bodyHeight * SCROLL_REUSE_MAX )
+      return false;
+
+    // shifting reads drawn pixels back from the graphics card, which can cost more than drawing simple cells,
+    // so redraw instead while shifting measured slower per pixel than full redraws, trying it again periodically
+    if ( m_shiftNanos > m_drawNanos && m_drawNanos > 0.0 && ++m_shiftSkips < SHIFT_RETRY )
+      return false;
+    m_shiftSkips = 0;
+
+    // snapshot only body pixels still visible, at output resolution so they stay sharp on high-dpi displays
+    int shiftX = (int) dx;
+    int shiftY = (int) dy;
+    int sourceX = headerWidth + Math.max( 0, -shiftX );
+    int sourceY = headerHeight + Math.max( 0, -shiftY );
+    int keepWidth = bodyWidth - Math.abs( shiftX );
+    int keepHeight = bodyHeight - Math.abs( shiftY );
+    double scaleX = getScene().getWindow() == null ? 1.0 : getScene().getWindow().getRenderScaleX();
+    double scaleY = getScene().getWindow() == null ? 1.0 : getScene().getWindow().getRenderScaleY();
+    int imageWidth = (int) Math.ceil( keepWidth * scaleX );
+    int imageHeight = (int) Math.ceil( keepHeight * scaleY );
+
+    long start = System.nanoTime();
+    var params = new SnapshotParameters();
+    params.setFill( Color.TRANSPARENT );
+    params.setTransform( Transform.scale( scaleX, scaleY ) );
+    params.setViewport( new Rectangle2D( sourceX * scaleX, sourceY * scaleY, imageWidth, imageHeight ) );
+    m_scrollImage = snapshot( params, m_scrollImage );
+
+    // shift body pixels still visible to their new position
+    GraphicsContext gc = getGraphicsContext2D();
+    gc.clearRect( headerWidth, headerHeight, bodyWidth, bodyHeight );
+    gc.drawImage( m_scrollImage, 0.0, 0.0, imageWidth, imageHeight, sourceX + shiftX, sourceY + shiftY, keepWidth,
+        keepHeight );
+    m_shiftNanos = average( m_shiftNanos, ( System.nanoTime() - start ) / ( (double) keepWidth * keepHeight ) );
+    m_drawnScrollX = scrollX;
+    m_drawnScrollY = scrollY;
+
+    // draw only body cells in newly exposed rows strip, then newly exposed columns strip beside kept rows
+    int keptY = sourceY + shiftY;
+    if ( shiftY != 0 )
+      drawExposed( headerWidth, shiftY > 0 ? headerHeight : keptY + keepHeight, width,
+          shiftY > 0 ? keptY : height );
+    if ( shiftX != 0 )
+      drawExposed( shiftX > 0 ? headerWidth : width + shiftX, keptY, shiftX > 0 ? headerWidth + shiftX : width,
+          keptY + keepHeight );
+
+    // headers are not shifted as they only scroll in one direction so redraw them (row header last for corner)
+    if ( shiftX != 0 )
+    {
+      gc.clearRect( headerWidth, 0.0, bodyWidth, headerHeight );
+      redrawRowNow( HEADER );
+    }
+    if ( shiftY != 0 )
+    {
+      gc.clearRect( 0.0, headerHeight, headerWidth, bodyHeight );
       redrawColumnNow( HEADER );
     }
+
+    return true;
+  }
+
+  /***************************************** drawExposed *****************************************/
+  private void drawExposed( int minX, int minY, int maxX, int maxY )
+  {
+    // clear canvas region exposed by scrolling and draw just the body cells intersecting it
+    if ( maxX <= minX || maxY <= minY )
+      return;
+    getGraphicsContext2D().clearRect( minX, minY, maxX - minX, maxY - minY );
+    if ( m_tiles.isEnabled() )
+    {
+      drawTiles( minX, minY, maxX, maxY );
+      return;
+    }
+
+    int minColumn = Math.max( m_view.getColumnIndex( minX ), FIRSTCELL );
+    int minRow = Math.max( m_view.getRowIndex( minY ), FIRSTCELL );
+    int maxColumn = Math.min( m_view.getColumnIndex( maxX - 1 ), m_view.getData().getColumnCount() - 1 );
+    int maxRow = Math.min( m_view.getRowIndex( maxY - 1 ), m_view.getData().getRowCount() - 1 );
+    if ( minColumn <= maxColumn && minRow <= maxRow )
+      drawCells( getGraphicsContext2D(), minColumn, maxColumn, minRow, maxRow, 0, 0 );
+  }
+
+  /*************************************** redrawCellsNow ****************************************/
+  protected void redrawCellsNow( int minColumn, int maxColumn, int minRow, int maxRow )
+  {
+    // redraw rectangle of table body or header cells between min and max inclusive
+    if ( isVisible() )
+      drawCells( getGraphicsContext2D(), minColumn, maxColumn, minRow, maxRow, 0, 0 );
   }
 
-  /*************************************** redrawCellNow *****************************************/
-  private void redrawCellNow( int columnIndex, int rowIndex )
+  /****************************************** drawCells ******************************************/
+  private void drawCells( GraphicsContext gc, int minColumn, int maxColumn, int minRow, int maxRow, int offsetX,
+      int offsetY )
   {
-    // redraw table body or header cell
+    // draw rectangle of cells between min and max inclusive, offset from their canvas position
+    if ( minColumn < HEADER || minRow < HEADER )
+      return;
+
     CellDrawer cell = m_view.getCellDrawer();
-    if ( isVisible() && columnIndex >= HEADER && rowIndex >= HEADER )
+    cell.view = m_view;
+    cell.gc = gc;
+    cell.beginBatch( m_batch );
+    for ( cell.viewColumn = minColumn; cell.viewColumn <= maxColumn; cell.viewColumn++ )
     {
-      cell.setIndex( m_view, columnIndex, rowIndex );
-      cell.draw();
+      cell.x = m_view.getColumnStartX( cell.viewColumn ) + offsetX;
+      cell.w = m_view.getColumnsAxis().getIndexPixels( cell.viewColumn );
+      if ( cell.w > 0.0 )
+        for ( cell.viewRow = minRow; cell.viewRow <= maxRow; cell.viewRow++ )
+        {
+          cell.y = m_view.getRowStartY( cell.viewRow ) + offsetY;
+          cell.h = m_view.getRowsAxis().getIndexPixels( cell.viewRow );
+          if ( cell.h > 0.0 )
+            cell.draw();
+        }
     }
+    cell.endBatch();
+  }
+
+  /****************************************** drawTiles ******************************************/
+  private void drawTiles( int minX, int minY, int maxX, int maxY )
+  {
+    // draw table body within canvas region from cached tiles, rendering tiles not yet cached
+    int lastColumn = m_view.getData().getColumnCount() - 1;
+    int lastRow = m_view.getData().getRowCount() - 1;
+    int minColumn = Math.max( m_view.getColumnIndex( minX ), FIRSTCELL );
+    int minRow = Math.max( m_view.getRowIndex( minY ), FIRSTCELL );
+    int maxColumn = Math.min( m_view.getColumnIndex( maxX ), lastColumn );
+    int maxRow = Math.min( m_view.getRowIndex( maxY ), lastRow );
+    if ( minColumn > maxColumn || minRow > maxRow || maxX <= minX || maxY <= minY )
+      return;
+
+    double scale = getScene() == null || getScene().getWindow() == null ? 1.0
+        : getScene().getWindow().getRenderScaleX();
+    m_tiles.check( m_view.getZoom().get(), scale );
+
+    GraphicsContext gc = getGraphicsContext2D();
+    int maxTileColumn = maxColumn / TileCache.TILE_COLUMNS;
+    int maxTileRow = maxRow / TileCache.TILE_ROWS;
+    for ( int tileColumn = minColumn / TileCache.TILE_COLUMNS; tileColumn <= maxTileColumn; tileColumn++ )
+      for ( int tileRow = minRow / TileCache.TILE_ROWS; tileRow <= maxTileRow; tileRow++ )
+      {
+        // determine cells and canvas area covered by tile
+        int firstColumn = tileColumn * TileCache.TILE_COLUMNS;
+        int firstRow = tileRow * TileCache.TILE_ROWS;
+        int endColumn = Math.min( firstColumn + TileCache.TILE_COLUMNS - 1, lastColumn );
+        int endRow = Math.min( firstRow + TileCache.TILE_ROWS - 1, lastRow );
+        int tileX = m_view.getColumnStartX( firstColumn );
+        int tileY = m_view.getRowStartY( firstRow );
+        int tileWidth = m_view.getColumnStartX( endColumn + 1 ) - tileX;
+        int tileHeight = m_view.getRowStartY( endRow + 1 ) - tileY;
+        int x = Math.max( tileX, minX );
+        int y = Math.max( tileY, minY );
+        int w = Math.min( tileX + tileWidth, maxX ) - x;
+        int h = Math.min( tileY + tileHeight, maxY ) - y;
+        if ( w <= 0 || h <= 0 )
+          continue;
+
+        // tiles too large to be worth caching are drawn directly
+        if ( !m_tiles.fits( tileWidth, tileHeight ) )
+        {
+          drawCells( gc, firstColumn, endColumn, firstRow, endRow, 0, 0 );
+          continue;
+        }
+
+        // blit part of tile within region, rendering & caching tile first if needed
+        var image = m_tiles.get( tileColumn, tileRow, tileWidth, tileHeight );
+        if ( image == null )
+        {
+          image = renderTile( firstColumn, endColumn, firstRow, endRow, tileX, tileY, tileWidth, tileHeight, scale );
+          m_tiles.put( tileColumn, tileRow, tileWidth, tileHeight, image );
+        }
+        gc.drawImage( image, ( x - tileX ) * scale, ( y - tileY ) * scale, w * scale, h * scale, x, y, w, h );
+      }
+  }
+
+  /***************************************** renderTile ******************************************/
+  private WritableImage renderTile( int minColumn, int maxColumn, int minRow, int maxRow, int tileX, int tileY,
+      int width, int height, double scale )
+  {
+    // draw cells onto off-screen canvas and take snapshot at output render scale
+    if ( m_tileCanvas == null )
+    {
+      m_tileCanvas = new Canvas();
+      m_tileCanvas.getGraphicsContext2D().setFontSmoothingType( FontSmoothingType.LCD );
+    }
+    m_tileCanvas.setWidth( width );
+    m_tileCanvas.setHeight( height );
+    GraphicsContext gc = m_tileCanvas.getGraphicsContext2D();
+    gc.clearRect( 0.0, 0.0, width, height );
+
+    // cells are drawn offset beyond the headers and translated back, so header clipping never affects tiles
+    int headerWidth = m_view.getHeaderWidth();
+    int headerHeight = m_view.getHeaderHeight();
+    gc.save();
+    gc.translate( -headerWidth, -headerHeight );
+    drawCells( gc, minColumn, maxColumn, minRow, maxRow, headerWidth - tileX, headerHeight - tileY );
+    gc.restore();
+
+    var image = new WritableImage( (int) Math.ceil( width * scale ), (int) Math.ceil( height * scale ) );
+    var params = new SnapshotParameters();
+    params.setFill( Color.TRANSPARENT );
+    params.setTransform( Transform.scale( scale, scale ) );
+    return m_tileCanvas.snapshot( params, image );
+  }
+
+  /**************************************** getTileCache *****************************************/
+  public TileCache getTileCache()
+  {
+    // return the optional cache of rendered body tiles (disabled until given a memory limit)
+    return m_tiles;
   }
 
   /*************************************** redrawColumnNow ***************************************/
@@ -222,6 +652,7 @@ public class TableCanvasDraw extends Canvas
     if ( maxRow > max )
       maxRow = max;
 
+    cell.beginBatch( m_batch );
     cell.y = m_view.getRowStartY( minRow );
     for ( cell.viewRow = minRow; cell.viewRow <= maxRow; cell.viewRow++ )
     {
@@ -238,6 +669,7 @@ public class TableCanvasDraw extends Canvas
     cell.y = 0.0;
     cell.h = m_view.getHeaderHeight();
     cell.draw();
+    cell.endBatch();
   }
 
   /**************************************** redrawRowNow *****************************************/
@@ -264,6 +696,7 @@ public class TableCanvasDraw extends Canvas
       if ( maxColumn > max )
         maxColumn = max;
 
+      cell.beginBatch( m_batch );
       cell.x = m_view.getColumnStartX( minColumn );
       for ( cell.viewColumn = minColumn; cell.viewColumn <= maxColumn; cell.viewColumn++ )
       {
@@ -280,6 +713,7 @@ public class TableCanvasDraw extends Canvas
       cell.x = 0.0;
       cell.w = m_view.getHeaderWidth();
       cell.draw();
+      cell.endBatch();
     }
   }
 
@@ -19,6 +19,7 @@
 package rjc.table.view;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
@@ -35,9 +36,30 @@ public class TableOverlay extends Canvas
   private TableView       m_view;
   private GraphicsContext m_gc;
 
+  private int[]           m_rects    = new int[16]; // pixel rectangles (x, y, w, h) of selected areas drawn
+  private int             m_rectCount;              // number of selected area rectangles drawn
+  private int[]           m_focus    = new int[4];  // pixel rectangle of focus cell drawn (zero width if none)
+  private int[]           m_newRects = new int[16]; // pixel rectangles of selected areas to be drawn
+  private int             m_newCount;               // number of selected area rectangles to be drawn
+  private int[]           m_newFocus = new int[4];  // pixel rectangle of focus cell to be drawn
+  private int[]           m_dirty    = new int[64]; // overlay rectangles needing repaint (x, y, w, h)
+  private int             m_dirtyCount;             // number of rectangles needing repaint
+
+  private boolean         m_drawnFocused;           // view focus when overlay drawn
+  private int             m_drawnHeaderWidth;       // header width when overlay drawn
+  private int             m_drawnHeaderHeight;      // header height when overlay drawn
+  private double          m_drawnWidth;             // overlay width when drawn
+  private double          m_drawnHeight;            // overlay height when drawn
+
   final public static int MIN_COORD = -999;  // highlighting coordinate limit
   final public static int MAX_COORD = 99999; // highlighting coordinate limit
 
+  // pixels either side of a highlight edge affected by its border strokes
+  final static private int MARGIN = 2;
+
+  // more changed rectangles than this, or changes covering more than half the overlay, are fully redrawn
+  final static private int DIRTY_MAX = 32;
+
   /**************************************** constructor ******************************************/
   public TableOverlay( TableView tableView )
   {
@@ -59,6 +81,8 @@ public class TableOverlay extends Canvas
   public void redrawNow()
   {
     // clip overlay drawing to table body
+    prepareGeometry();
+    acceptGeometry();
     m_gc.clearRect( 0.0, 0.0, getWidth(), getHeight() );
     m_gc.save();
     m_gc.beginPath();
@@ -66,22 +90,68 @@ public class TableOverlay extends Canvas
     m_gc.clip();
 
     // draw overlay
-    highlightSelectedAreas( m_view.getSelection().getAreas() );
-    highlightFocusCell( m_view.getFocusCell() );
+    highlightSelectedAreas();
+    highlightFocusCell();
 
     // remove clip
     m_gc.restore();
   }
 
-  /*********************************** highlightSelectedAreas ************************************/
-  private void highlightSelectedAreas( ArrayList<int[]> areas )
+  /**************************************** redrawChanges ****************************************/
+  public void redrawChanges()
   {
-    // highlight selected areas
-    Color fill = m_view.isFocused() ? Colours.SELECTED_HIGHLIGHT : Colours.SELECTED_HIGHLIGHT.desaturate();
-    m_gc.setFill( fill );
-    m_gc.setStroke( Colours.SELECTED_BORDER );
+    // redraw fully if anything other than selection & focus changed since overlay drawn
+    if ( m_drawnFocused != m_view.isFocused() || m_drawnHeaderWidth != m_view.getHeaderWidth()
+        || m_drawnHeaderHeight != m_view.getHeaderHeight() || m_drawnWidth != getWidth()
+        || m_drawnHeight != getHeight() )
+    {
+      redrawNow();
+      return;
+    }
 
-    // fill each selected rectangle with opaque colour & border
+    // find overlay rectangles that differ between drawn and new selected areas & focus cell
+    prepareGeometry();
+    m_dirtyCount = 0;
+    for ( int pos = 0; pos < Math.max( m_rectCount, m_newCount ) * 4; pos += 4 )
+      addDifference( m_rects, pos < m_rectCount * 4 ? pos : -1, m_newRects, pos < m_newCount * 4 ? pos : -1 );
+    addDifference( m_focus, m_focus[2] > 0 ? 0 : -1, m_newFocus, m_newFocus[2] > 0 ? 0 : -1 );
+
+    // repaint each changed rectangle clipped to itself, or everything if changes are extensive
+    double area = 0.0;
+    for ( int pos = 0; pos < m_dirtyCount * 4; pos += 4 )
+      area += (double) m_dirty[pos + 2] * m_dirty[pos + 3];
+    if ( m_dirtyCount > DIRTY_MAX || area > getWidth() * getHeight() * 0.5 )
+    {
+      redrawNow();
+      return;
+    }
+
+    acceptGeometry();
+    for ( int pos = 0; pos < m_dirtyCount * 4; pos += 4 )
+    {
+      int x = m_dirty[pos];
+      int y = m_dirty[pos + 1];
+      int w = m_dirty[pos + 2];
+      int h = m_dirty[pos + 3];
+      m_gc.clearRect( x, y, w, h );
+      m_gc.save();
+      m_gc.beginPath();
+      m_gc.rect( x, y, w, h );
+      m_gc.clip();
+      highlightSelectedAreas();
+      highlightFocusCell();
+      m_gc.restore();
+    }
+  }
+
+  /*************************************** prepareGeometry ***************************************/
+  private void prepareGeometry()
+  {
+    // calculate pixel rectangles of selected areas & focus cell to be drawn
+    ArrayList<int[]> areas = m_view.getSelection().getAreas();
+    if ( m_newRects.length < areas.size() * 4 )
+      m_newRects = new int[areas.size() * 4];
+    m_newCount = 0;
     for ( var area : areas )
     {
       // limit highlighted area to avoid drawing overflow artifacts on large tables
@@ -93,27 +163,175 @@ public class TableOverlay extends Canvas
       w = w > MAX_COORD ? MAX_COORD : w;
       int h = m_view.getRowStartY( area[3] + 1 ) - y;
       h = h > MAX_COORD ? MAX_COORD : h;
+      setRect( m_newRects, m_newCount++ * 4, x, y, w, h );
+    }
+
+    ViewPosition focus = m_view.getFocusCell();
+    setRect( m_newFocus, 0, 0, 0, 0, 0 );
+    if ( focus.isVisible() )
+    {
+      int column = focus.getColumn();
+      int row = focus.getRow();
+      int x = m_view.getColumnStartX( column );
+      int y = m_view.getRowStartY( row );
+      setRect( m_newFocus, 0, x, y, m_view.getColumnStartX( column + 1 ) - x, m_view.getRowStartY( row + 1 ) - y );
+    }
+  }
+
+  /*************************************** acceptGeometry ****************************************/
+  private void acceptGeometry()
+  {
+    // new geometry becomes drawn geometry, and record state it depends on
+    int[] swap = m_rects;
+    m_rects = m_newRects;
+    m_newRects = swap;
+    m_rectCount = m_newCount;
+    swap = m_focus;
+    m_focus = m_newFocus;
+    m_newFocus = swap;
+
+    m_drawnFocused = m_view.isFocused();
+    m_drawnHeaderWidth = m_view.getHeaderWidth();
+    m_drawnHeaderHeight = m_view.getHeaderHeight();
+    m_drawnWidth = getWidth();
+    m_drawnHeight = getHeight();
+  }
+
+  /**************************************** addDifference ****************************************/
+  private void addDifference( int[] old, int oldPos, int[] now, int nowPos )
+  {
+    // add rectangles covering symmetric difference of old & new highlight (negative position if none)
+    if ( oldPos < 0 && nowPos < 0 )
+      return;
+    if ( oldPos < 0 || nowPos < 0 )
+    {
+      int[] rect = oldPos < 0 ? now : old;
+      int pos = oldPos < 0 ? nowPos : oldPos;
+      addDirty( rect[pos] - MARGIN, rect[pos + 1] - MARGIN, rect[pos + 2] + MARGIN * 2, rect[pos + 3] + MARGIN * 2 );
+      return;
+    }
 
+    int ox = old[oldPos];
+    int oy = old[oldPos + 1];
+    int ow = old[oldPos + 2];
+    int oh = old[oldPos + 3];
+    int nx = now[nowPos];
+    int ny = now[nowPos + 1];
+    int nw = now[nowPos + 2];
+    int nh = now[nowPos + 3];
+    if ( ox == nx && oy == ny && ow == nw && oh == nh )
+      return;
+
+    // areas covered by only one of the highlights (expanded to include their borders)
+    addSubtraction( ox - MARGIN, oy - MARGIN, ow + MARGIN * 2, oh + MARGIN * 2, nx - MARGIN, ny - MARGIN,
+        nw + MARGIN * 2, nh + MARGIN * 2 );
+    addSubtraction( nx - MARGIN, ny - MARGIN, nw + MARGIN * 2, nh + MARGIN * 2, ox - MARGIN, oy - MARGIN,
+        ow + MARGIN * 2, oh + MARGIN * 2 );
+
+    // borders of moved edges, as old border may now be inside new highlight and new border inside old
+    if ( ox != nx )
+    {
+      addDirty( ox - MARGIN, oy - MARGIN, MARGIN * 2, oh + MARGIN * 2 );
+      addDirty( nx - MARGIN, ny - MARGIN, MARGIN * 2, nh + MARGIN * 2 );
+    }
+    if ( oy != ny )
+    {
+      addDirty( ox - MARGIN, oy - MARGIN, ow + MARGIN * 2, MARGIN * 2 );
+      addDirty( nx - MARGIN, ny - MARGIN, nw + MARGIN * 2, MARGIN * 2 );
+    }
+    if ( ox + ow != nx + nw )
+    {
+      addDirty( ox + ow - MARGIN, oy - MARGIN, MARGIN * 2, oh + MARGIN * 2 );
+      addDirty( nx + nw - MARGIN, ny - MARGIN, MARGIN * 2, nh + MARGIN * 2 );
+    }
+    if ( oy + oh != ny + nh )
+    {
+      addDirty( ox - MARGIN, oy + oh - MARGIN, ow + MARGIN * 2, MARGIN * 2 );
+      addDirty( nx - MARGIN, ny + nh - MARGIN, nw + MARGIN * 2, MARGIN * 2 );
+    }
+  }
+
+  /*************************************** addSubtraction ****************************************/
+  private void addSubtraction( int x, int y, int w, int h, int sx, int sy, int sw, int sh )
+  {
+    // add up to four rectangles covering first rectangle minus second
+    int top = Math.max( y, Math.min( sy, y + h ) );
+    int bottom = Math.min( y + h, Math.max( sy + sh, y ) );
+    if ( top >= bottom || sx >= x + w || sx + sw <= x )
+    {
+      addDirty( x, y, w, h );
+      return;
+    }
+
+    addDirty( x, y, w, top - y );
+    addDirty( x, bottom, w, y + h - bottom );
+    addDirty( x, top, sx - x, bottom - top );
+    addDirty( sx + sw, top, x + w - sx - sw, bottom - top );
+  }
+
+  /****************************************** addDirty *******************************************/
+  private void addDirty( int x, int y, int w, int h )
+  {
+    // add rectangle needing repaint after limiting to table body, ignoring if empty
+    int minX = m_view.getHeaderWidth() - 1;
+    int minY = m_view.getHeaderHeight() - 1;
+    int maxX = (int) Math.ceil( getWidth() );
+    int maxY = (int) Math.ceil( getHeight() );
+    int x1 = Math.max( x, minX );
+    int y1 = Math.max( y, minY );
+    int x2 = Math.min( x + w, maxX );
+    int y2 = Math.min( y + h, maxY );
+    if ( x1 >= x2 || y1 >= y2 )
+      return;
+
+    if ( m_dirtyCount * 4 == m_dirty.length )
+      m_dirty = Arrays.copyOf( m_dirty, m_dirty.length * 2 );
+    setRect( m_dirty, m_dirtyCount++ * 4, x1, y1, x2 - x1, y2 - y1 );
+  }
+
+  /******************************************* setRect *******************************************/
+  private static void setRect( int[] rects, int pos, int x, int y, int w, int h )
+  {
+    // set rectangle at position in array
+    rects[pos] = x;
+    rects[pos + 1] = y;
+    rects[pos + 2] = w;
+    rects[pos + 3] = h;
+  }
+
+  /*********************************** highlightSelectedAreas ************************************/
+  private void highlightSelectedAreas()
+  {
+    // highlight selected areas
+    Color fill = m_view.isFocused() ? Colours.SELECTED_HIGHLIGHT : Colours.SELECTED_HIGHLIGHT.desaturate();
+    m_gc.setFill( fill );
+    m_gc.setStroke( Colours.SELECTED_BORDER );
+
+    // fill each selected rectangle with opaque colour & border
+    for ( int pos = 0; pos < m_rectCount * 4; pos += 4 )
+    {
+      int x = m_rects[pos];
+      int y = m_rects[pos + 1];
+      int w = m_rects[pos + 2];
+      int h = m_rects[pos + 3];
       m_gc.fillRect( x, y, w - 1, h - 1 );
       m_gc.strokeRect( x - 0.5, y - 0.5, w, h );
     }
   }
 
   /************************************* highlightFocusCell **************************************/
-  private void highlightFocusCell( ViewPosition focus )
+  private void highlightFocusCell()
   {
     // clear highlight on focus cell and draw border
     Color stroke = m_view.isFocused() ? Colours.SELECTED_BORDER : Colours.SELECTED_BORDER.desaturate();
     m_gc.setStroke( stroke );
 
-    if ( focus.isVisible() )
+    if ( m_focus[2] > 0 )
     {
-      int column = focus.getColumn();
-      int row = focus.getRow();
-      int x = m_view.getColumnStartX( column );
-      int y = m_view.getRowStartY( row );
-      int w = m_view.getColumnStartX( column + 1 ) - x;
-      int h = m_view.getRowStartY( row + 1 ) - y;
+      int x = m_focus[0];
+      int y = m_focus[1];
+      int w = m_focus[2];
+      int h = m_focus[3];
       m_gc.clearRect( x, y, w, h );
 
       m_gc.strokeRect( x - 0.5, y - 0.5, w, h );
@@ -38,7 +38,7 @@ public class TableScrollBar extends ScrollBar
 {
   private TableAxis       m_axis;                   // associated table axis
   private Timeline        m_timeline;               // used for animated table scrolling
-  private int             m_scrollingTo;            // destination scroll-bar value for current animation
+  private long            m_scrollingTo;            // destination scroll-bar value for current animation
   private long            m_lastScrollNanos;        // last time scroll bar value changed
   private Animation       m_animation;              // currently active animation
 
@@ -88,27 +88,34 @@ public class TableScrollBar extends ScrollBar
       return;
 
     // check if need to scroll towards start to show cell start
-    int start = m_axis.getStartPixel( index, (int) getValue() ) - m_axis.getHeaderPixels();
+    int start = m_axis.getStartPixel( index, getScroll() ) - m_axis.getHeaderPixels();
     if ( start < 0 )
     {
-      scrollToValue( (int) getValue() + start, SCROLL_TO_DURATION );
+      scrollToValue( getScroll() + start, SCROLL_TO_DURATION );
       return;
     }
 
     // check if need to scroll towards end to show cell end, without hiding start
     int size = getOrientation() == Orientation.VERTICAL ? (int) getHeight() : (int) getWidth();
-    int end = size - m_axis.getStartPixel( index + 1, (int) getValue() );
+    int end = size - m_axis.getStartPixel( index + 1, getScroll() );
     if ( -end > start )
       end = -start;
     if ( end < 0 )
-      scrollToValue( (int) getValue() - end, SCROLL_TO_DURATION );
+      scrollToValue( getScroll() - end, SCROLL_TO_DURATION );
+  }
+
+  /****************************************** getScroll ******************************************/
+  public long getScroll()
+  {
+    // return scroll-bar value as whole pixels (a double holds pixel values exactly up to 2^53)
+    return (long) getValue();
   }
 
   /**************************************** scrollToValue ****************************************/
-  public void scrollToValue( int newValue, int duration_ms )
+  public void scrollToValue( long newValue, int duration_ms )
   {
     // ensure new value is valid
-    newValue = Utils.clamp( newValue, (int) getMin(), (int) getMax() );
+    newValue = Utils.clamp( newValue, (long) getMin(), (long) getMax() );
 
     // if already scrolling to specified new-value, no need to start new animation
     if ( newValue == m_scrollingTo )
@@ -134,7 +141,7 @@ public class TableScrollBar extends ScrollBar
   }
 
   /************************************* laterScrollToValue **************************************/
-  public void laterScrollToValue( int newValue )
+  public void laterScrollToValue( long newValue )
   {
     // finish any existing animation and scroll to new value (later)
     Platform.runLater( () ->
@@ -159,7 +166,7 @@ public class TableScrollBar extends ScrollBar
       // setup new animation
       double ms = ( getMax() - getValue() ) * 1e3 / pixelsPerSec;
       m_scrollingTo = INVALID;
-      scrollToValue( (int) getMax(), (int) ms );
+      scrollToValue( (long) getMax(), (int) ms );
       m_animation = Animation.TO_END;
     }
   }
@@ -236,9 +243,9 @@ public class TableScrollBar extends ScrollBar
   {
     // increase scroll bar value to next table cell boundary
     int headerSize = m_axis.getHeaderPixels();
-    int index = m_axis.getIndexFromCoordinate( headerSize, (int) getValue() );
+    int index = m_axis.getIndexFromCoordinate( headerSize, getScroll() );
     int nextIndex = m_axis.getNextVisible( index );
-    int start = m_axis.getStartPixel( nextIndex, 0 ) - headerSize;
+    long start = m_axis.getStartPosition( nextIndex ) - headerSize;
 
     scrollToValue( start, SCROLL_TO_DURATION );
   }
@@ -249,15 +256,15 @@ public class TableScrollBar extends ScrollBar
   {
     // decrease scroll bar value to next table cell boundary
     int headerSize = m_axis.getHeaderPixels();
-    int index = m_axis.getIndexFromCoordinate( headerSize, (int) getValue() );
-    int start = m_axis.getStartPixel( index, 0 ) - headerSize;
+    int index = m_axis.getIndexFromCoordinate( headerSize, getScroll() );
+    long start = m_axis.getStartPosition( index ) - headerSize;
 
     if ( start < getValue() )
       scrollToValue( start, SCROLL_TO_DURATION );
     else
     {
       int previousIndex = m_axis.getPreviousVisible( index );
-      start = m_axis.getStartPixel( previousIndex, 0 ) - headerSize;
+      start = m_axis.getStartPosition( previousIndex ) - headerSize;
       scrollToValue( start, SCROLL_TO_DURATION );
     }
   }
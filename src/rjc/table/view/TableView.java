@@ -60,18 +60,44 @@ public class TableView extends TableViewComponents
     // react to data model signals
     getData().addListener( ( sender, msg ) ->
     {
+      // signals use data-model indexes so translate into view indexes before redrawing
       Signal change = (Signal) msg[0];
       if ( change == Signal.TABLE_VALUES_CHANGED )
         redraw();
       else if ( change == Signal.COLUMN_VALUES_CHANGED )
-        getCanvas().redrawColumn( (int) msg[1] );
+        getCanvas().redrawColumn( getColumnsAxis().getViewIndex( (int) msg[1] ) );
       else if ( change == Signal.ROW_VALUES_CHANGED )
-        getCanvas().redrawRow( (int) msg[1] );
+        getCanvas().redrawRow( getRowsAxis().getViewIndex( (int) msg[1] ) );
       else if ( change == Signal.CELL_VALUE_CHANGED )
-        getCanvas().redrawCell( (int) msg[1], (int) msg[2] );
+        getCanvas().redrawCell( getColumnsAxis().getViewIndex( (int) msg[1] ),
+            getRowsAxis().getViewIndex( (int) msg[2] ) );
+      else if ( change == Signal.REGION_VALUES_CHANGED )
+        redrawRegion( (int) msg[1], (int) msg[2], (int) msg[3], (int) msg[4] );
     } );
   }
 
+  /**************************************** redrawRegion *****************************************/
+  protected void redrawRegion( int minDataColumn, int maxDataColumn, int minDataRow, int maxDataRow )
+  {
+    // request redraw of visible body cells whose data indexes are within region (view may be reordered)
+    int minColumn = Math.max( getColumnIndex( getHeaderWidth() ), TableAxis.FIRSTCELL );
+    int maxColumn = Math.min( getColumnIndex( (int) getCanvas().getWidth() ), getColumnsAxis().getCount() - 1 );
+    int minRow = Math.max( getRowIndex( getHeaderHeight() ), TableAxis.FIRSTCELL );
+    int maxRow = Math.min( getRowIndex( (int) getCanvas().getHeight() ), getRowsAxis().getCount() - 1 );
+
+    for ( int column = minColumn; column <= maxColumn; column++ )
+    {
+      int dataColumn = getColumnsAxis().getDataIndex( column );
+      if ( dataColumn >= minDataColumn && dataColumn <= maxDataColumn )
+        for ( int row = minRow; row <= maxRow; row++ )
+        {
+          int dataRow = getRowsAxis().getDataIndex( row );
+          if ( dataRow >= minDataRow && dataRow <= maxDataRow )
+            getCanvas().redrawCell( column, row );
+        }
+    }
+  }
+
   /************************************** addMouseHandlers ***************************************/
   protected void addMouseHandlers()
   {
@@ -176,10 +202,11 @@ public class TableView extends TableViewComponents
     // react to mouse cell-position as might be used for selecting
     getMouseCell().addListener( ( sender, msg ) -> checkSelectPosition() );
 
-    // react to zoom values changes
+    // react to zoom values changes (cells change size so cannot shift drawn body)
     getZoom().addListener( ( sender, msg ) ->
     {
       updateLayout();
+      redraw();
       tableScrolled();
     } );
 
@@ -255,7 +282,7 @@ public class TableView extends TableViewComponents
   private void tableScrolled()
   {
     // handle any actions needed due to view being modified usually scrolled
-    redraw();
+    getCanvas().redrawScrolled();
     getMouseCell().checkXY();
     CellEditorBase.endEditing();
 
@@ -25,7 +25,9 @@ import rjc.table.signal.ObservableStatus;
 import rjc.table.undo.UndoStack;
 import rjc.table.view.axis.TableAxis;
 import rjc.table.view.cell.CellSelection;
+import rjc.table.view.cell.LayoutCache;
 import rjc.table.view.cell.MousePosition;
+import rjc.table.view.cell.StyleCache;
 import rjc.table.view.cell.ViewPosition;
 
 /*************************************************************************************************/
@@ -44,6 +46,9 @@ public class TableViewComponents extends TableViewParent implements IObservableS
   private UndoStack        m_undostack;
   private ObservableStatus m_status;
   private ObservableDouble m_zoom;
+  private StyleCache       m_styleCache;         // zoomed fonts & insets shared by cell drawers
+  private LayoutCache      m_layoutCache;        // cell text layouts shared by cell drawers
+  private RenderMetrics    m_metrics;            // rendering counters & timers (disabled by default)
 
   private CellSelection    m_selection;
   private ViewPosition     m_focusCell;
@@ -66,6 +71,9 @@ public class TableViewComponents extends TableViewParent implements IObservableS
     m_zoom = new ObservableDouble( 1.0 );
     m_columnsAxis.setZoomProperty( m_zoom.getReadOnly() );
     m_rowsAxis.setZoomProperty( m_zoom.getReadOnly() );
+    m_styleCache = new StyleCache( m_zoom.getReadOnly() );
+    m_layoutCache = new LayoutCache();
+    m_metrics = new RenderMetrics( m_layoutCache );
 
     // create observable positions for mouse, focus & select, and cell-selection store
     m_mouseCell = new MousePosition( view );
@@ -95,8 +103,8 @@ public class TableViewComponents extends TableViewParent implements IObservableS
       return;
 
     // determine which scroll-bars should be visible
-    int tableHeight = getTableHeight();
-    int tableWidth = getTableWidth();
+    long tableHeight = getTableHeight();
+    long tableWidth = getTableWidth();
     int scrollbarSize = (int) getVerticalScrollBar().getWidth();
 
     boolean isVSBvisible = getHeight() < tableHeight;
@@ -221,6 +229,27 @@ public class TableViewComponents extends TableViewParent implements IObservableS
     return m_selection;
   }
 
+  /***************************************** getMetrics ******************************************/
+  public RenderMetrics getMetrics()
+  {
+    // return observable rendering counters & timers for diagnosing slow redraws
+    return m_metrics;
+  }
+
+  /*************************************** getLayoutCache ****************************************/
+  public LayoutCache getLayoutCache()
+  {
+    // return cache of cell text layouts for drawing cells on table-view
+    return m_layoutCache;
+  }
+
+  /**************************************** getStyleCache ****************************************/
+  public StyleCache getStyleCache()
+  {
+    // return cache of zoomed fonts & insets for drawing cells on table-view
+    return m_styleCache;
+  }
+
   /***************************************** getCanvas *******************************************/
   public TableCanvas getCanvas()
   {
@@ -260,28 +289,28 @@ public class TableViewComponents extends TableViewParent implements IObservableS
   public int getColumnStartX( int viewColumn )
   {
     // return x coordinate of cell start for specified column position
-    return m_columnsAxis.getStartPixel( viewColumn, (int) getHorizontalScrollBar().getValue() );
+    return m_columnsAxis.getStartPixel( viewColumn, getHorizontalScrollBar().getScroll() );
   }
 
   /**************************************** getRowStartY *****************************************/
   public int getRowStartY( int viewRow )
   {
     // return y coordinate of cell start for specified row position
-    return m_rowsAxis.getStartPixel( viewRow, (int) getVerticalScrollBar().getValue() );
+    return m_rowsAxis.getStartPixel( viewRow, getVerticalScrollBar().getScroll() );
   }
 
   /*************************************** getColumnIndex ****************************************/
   public int getColumnIndex( int xCoordinate )
   {
     // return column index at specified x coordinate
-    return m_columnsAxis.getIndexFromCoordinate( xCoordinate, (int) getHorizontalScrollBar().getValue() );
+    return m_columnsAxis.getIndexFromCoordinate( xCoordinate, getHorizontalScrollBar().getScroll() );
   }
 
   /***************************************** getRowIndex *****************************************/
   public int getRowIndex( int yCoordinate )
   {
     // return row index at specified y coordinate
-    return m_rowsAxis.getIndexFromCoordinate( yCoordinate, (int) getVerticalScrollBar().getValue() );
+    return m_rowsAxis.getIndexFromCoordinate( yCoordinate, getVerticalScrollBar().getScroll() );
   }
 
   /*************************************** getHeaderHeight ***************************************/
@@ -299,14 +328,14 @@ public class TableViewComponents extends TableViewParent implements IObservableS
   }
 
   /**************************************** getTableHeight ***************************************/
-  public int getTableHeight()
+  public long getTableHeight()
   {
     // return whole table (including header) height in pixels
     return m_rowsAxis.getTotalPixels();
   }
 
   /**************************************** getTableWidth ****************************************/
-  public int getTableWidth()
+  public long getTableWidth()
   {
     // return whole table (including header) width in pixels
     return m_columnsAxis.getTotalPixels();
@@ -0,0 +1,246 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view;
+
+import java.util.LinkedHashMap;
+
+import javafx.scene.image.WritableImage;
+import rjc.table.Utils;
+import rjc.table.view.axis.TableAxis;
+
+/*************************************************************************************************/
+/***************** LRU cache of rendered table-body tiles within a memory limit ******************/
+/*************************************************************************************************/
+
+public class TileCache
+{
+  // cached tile image and the size in pixels of the cells it was rendered from
+  private static class Tile
+  {
+    private WritableImage m_image;
+    private int           m_width;
+    private int           m_height;
+  }
+
+  // least-recently-used map of tile keys to tiles (eviction done by cache to honour memory limit)
+  private static class TileMap extends LinkedHashMap<Long, Tile>
+  {
+    private static final long serialVersionUID = Utils.VERSION.hashCode();
+
+    /**************************************** constructor ****************************************/
+    private TileMap()
+    {
+      // create access ordered map
+      super( 64, 0.75f, true );
+    }
+  }
+
+  // each tile covers a fixed block of view columns & rows
+  final static public int TILE_COLUMNS = 8;
+  final static public int TILE_ROWS    = 32;
+
+  private TileMap         m_tiles      = new TileMap(); // cached tiles
+  private long            m_bytes;                      // memory used by cached tile images
+  private long            m_limit;                      // maximum memory for tile images (zero is no caching)
+  private double          m_zoom       = 1.0;           // zoom tiles were rendered at
+  private double          m_scale      = 1.0;           // output render scale tiles were rendered at
+
+  /*************************************** setMemoryLimit ****************************************/
+  public void setMemoryLimit( long bytes )
+  {
+    // set maximum memory for tile images, zero or less disables caching
+    m_limit = Math.max( bytes, 0L );
+    evict( m_limit );
+  }
+
+  /*************************************** getMemoryLimit ****************************************/
+  public long getMemoryLimit()
+  {
+    // return maximum memory for tile images (zero when caching disabled)
+    return m_limit;
+  }
+
+  /**************************************** getMemoryUsed ****************************************/
+  public long getMemoryUsed()
+  {
+    // return memory used by cached tile images
+    return m_bytes;
+  }
+
+  /****************************************** isEnabled ******************************************/
+  public boolean isEnabled()
+  {
+    // return true if tiles should be cached
+    return m_limit > 0L;
+  }
+
+  /******************************************** check ********************************************/
+  public void check( double zoom, double scale )
+  {
+    // clear tiles if about to draw at different zoom or output render scale
+    if ( zoom != m_zoom || scale != m_scale )
+    {
+      clear();
+      m_zoom = zoom;
+      m_scale = scale;
+    }
+  }
+
+  /********************************************* get *********************************************/
+  public WritableImage get( int tileColumn, int tileRow, int width, int height )
+  {
+    // return tile image marking it most recently used, or null if not cached or cells since resized
+    Tile tile = m_tiles.get( key( tileColumn, tileRow ) );
+    if ( tile == null )
+      return null;
+    if ( tile.m_width != width || tile.m_height != height )
+    {
+      remove( key( tileColumn, tileRow ) );
+      return null;
+    }
+
+    return tile.m_image;
+  }
+
+  /********************************************* put *********************************************/
+  public void put( int tileColumn, int tileRow, int width, int height, WritableImage image )
+  {
+    // add tile image as most recently used, evicting least recently used tiles to stay within memory limit
+    long bytes = bytes( image );
+    if ( bytes > m_limit )
+      return;
+
+    remove( key( tileColumn, tileRow ) );
+    evict( m_limit - bytes );
+    var tile = new Tile();
+    tile.m_image = image;
+    tile.m_width = width;
+    tile.m_height = height;
+    m_tiles.put( key( tileColumn, tileRow ), tile );
+    m_bytes += bytes;
+  }
+
+  /******************************************** fits *********************************************/
+  public boolean fits( int width, int height )
+  {
+    // return true if tile of specified size is small enough to be worth caching
+    return (long) Math.ceil( width * m_scale ) * (long) Math.ceil( height * m_scale ) * 4L <= m_limit / 4L;
+  }
+
+  /*************************************** invalidateCell ****************************************/
+  public void invalidateCell( int viewColumn, int viewRow )
+  {
+    // remove tile containing body cell
+    if ( viewColumn >= TableAxis.FIRSTCELL && viewRow >= TableAxis.FIRSTCELL && !m_tiles.isEmpty() )
+      remove( key( viewColumn / TILE_COLUMNS, viewRow / TILE_ROWS ) );
+  }
+
+  /************************************** invalidateColumn ***************************************/
+  public void invalidateColumn( int viewColumn )
+  {
+    // remove tiles containing body column
+    if ( viewColumn >= TableAxis.FIRSTCELL && !m_tiles.isEmpty() )
+      removeIf( viewColumn / TILE_COLUMNS, -1 );
+  }
+
+  /**************************************** invalidateRow ****************************************/
+  public void invalidateRow( int viewRow )
+  {
+    // remove tiles containing body row
+    if ( viewRow >= TableAxis.FIRSTCELL && !m_tiles.isEmpty() )
+      removeIf( -1, viewRow / TILE_ROWS );
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all tiles
+    m_tiles.clear();
+    m_bytes = 0L;
+  }
+
+  /******************************************** size *********************************************/
+  public int size()
+  {
+    // return number of cached tiles
+    return m_tiles.size();
+  }
+
+  /****************************************** removeIf *******************************************/
+  private void removeIf( int tileColumn, int tileRow )
+  {
+    // remove tiles in tile column or tile row (negative matches nothing)
+    var iterator = m_tiles.entrySet().iterator();
+    while ( iterator.hasNext() )
+    {
+      var entry = iterator.next();
+      long key = entry.getKey();
+      if ( (int) ( key >> 32 ) == tileColumn || (int) key == tileRow )
+      {
+        m_bytes -= bytes( entry.getValue().m_image );
+        iterator.remove();
+      }
+    }
+  }
+
+  /******************************************* remove ********************************************/
+  private void remove( long key )
+  {
+    // remove tile if cached
+    Tile tile = m_tiles.remove( key );
+    if ( tile != null )
+      m_bytes -= bytes( tile.m_image );
+  }
+
+  /******************************************** evict ********************************************/
+  private void evict( long bytes )
+  {
+    // remove least recently used tiles until memory used is no more than specified
+    var iterator = m_tiles.values().iterator();
+    while ( m_bytes > bytes && iterator.hasNext() )
+    {
+      m_bytes -= bytes( iterator.next().m_image );
+      iterator.remove();
+    }
+  }
+
+  /********************************************* key *********************************************/
+  private static long key( int tileColumn, int tileRow )
+  {
+    // return map key for tile
+    return (long) tileColumn << 32 | tileRow & 0xFFFFFFFFL;
+  }
+
+  /******************************************** bytes ********************************************/
+  private static long bytes( WritableImage image )
+  {
+    // return approximate memory used by image pixels
+    return (long) image.getWidth() * (long) image.getHeight() * 4L;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[tiles="
+        + m_tiles.size() + " bytes=" + m_bytes + " limit=" + m_limit + "]";
+  }
+
+}
\ No newline at end of file
@@ -0,0 +1,366 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.action;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import rjc.table.data.TableData;
+import rjc.table.data.types.Date;
+import rjc.table.data.types.DateTime;
+import rjc.table.data.types.Time;
+import rjc.table.signal.ObservableStatus;
+import rjc.table.signal.ObservableStatus.Level;
+import rjc.table.view.TableView;
+import rjc.table.view.axis.TableAxis;
+
+/*************************************************************************************************/
+/** Exports table-view or selected cells to CSV file in view order, formatting rows in parallel **/
+/*************************************************************************************************/
+
+public class ExportCsv
+{
+  final static private int  BLOCK_ROWS    = 4096; // rows formatted by each task
+  final static private int  STATUS_MILLIS = 250;  // minimum time between progress status updates
+
+  private TableView         m_view;                // table-view being exported
+  private TableData         m_data;                // table data being exported
+  private ObservableStatus  m_status;              // status for reporting progress, cancellation & errors
+  private char              m_delimiter      = ',';
+  private DateTimeFormatter m_dateFormat     = DateTimeFormatter.ISO_LOCAL_DATE;
+  private DateTimeFormatter m_timeFormat     = DateTimeFormatter.ofPattern( "HH:mm:ss.SSS" );
+  private DateTimeFormatter m_dateTimeFormat = DateTimeFormatter.ofPattern( "uuuu-MM-dd'T'HH:mm:ss.SSS" );
+
+  private int[]             m_viewColumns;         // view index of each exported column
+  private int[]             m_dataColumns;         // data index of each exported column
+  private int[]             m_viewRows;            // view index of each exported row
+  private int[]             m_dataRows;            // data index of each exported row
+  private int[][]           m_areas;               // selected areas to export, or null for whole table
+  private volatile boolean  m_exporting;           // true while export in progress
+  private volatile boolean  m_cancelled;           // true if export cancelled
+
+  /***************************************** constructor *****************************************/
+  public ExportCsv( TableView view )
+  {
+    // create exporter for table-view, reporting through table-view status
+    m_view = view;
+    if ( view.getStatus() == null )
+      view.setStatus( null );
+    m_status = view.getStatus();
+  }
+
+  /**************************************** setDelimiter *****************************************/
+  public void setDelimiter( char delimiter )
+  {
+    // set field delimiter (comma by default)
+    m_delimiter = delimiter;
+  }
+
+  /*************************************** setDateFormats ****************************************/
+  public void setDateFormats( String datePattern, String timePattern, String dateTimePattern )
+  {
+    // set patterns for formatting Date, Time & DateTime values, formatters created once and shared by all tasks
+    m_dateFormat = DateTimeFormatter.ofPattern( datePattern );
+    m_timeFormat = DateTimeFormatter.ofPattern( timePattern );
+    m_dateTimeFormat = DateTimeFormatter.ofPattern( dateTimePattern );
+  }
+
+  /***************************************** exportTable *****************************************/
+  public void exportTable( Path file )
+  {
+    // start exporting all visible table-view cells to file
+    if ( m_exporting )
+      throw new IllegalStateException( "Export already in progress" );
+    m_areas = null;
+    setRows( TableAxis.FIRSTCELL, m_view.getRowsAxis().getCount() - 1 );
+    setColumns( TableAxis.FIRSTCELL, m_view.getColumnsAxis().getCount() - 1 );
+    start( file );
+  }
+
+  /*************************************** exportSelection ***************************************/
+  public void exportSelection( Path file )
+  {
+    // start exporting visible rows & columns containing selected cells, unselected cells exported empty
+    if ( m_exporting )
+      throw new IllegalStateException( "Export already in progress" );
+    var areas = m_view.getSelection().getAreas();
+    m_areas = areas.toArray( new int[areas.size()][] );
+    setRows( merge( areas, 1, 3 ) );
+    setColumns( merge( areas, 0, 2 ) );
+    start( file );
+  }
+
+  /******************************************* cancel ********************************************/
+  public void cancel()
+  {
+    // stop export, partially written file is deleted
+    m_cancelled = true;
+  }
+
+  /***************************************** isExporting *****************************************/
+  public boolean isExporting()
+  {
+    // return true if export in progress
+    return m_exporting;
+  }
+
+  /******************************************** start ********************************************/
+  private void start( Path file )
+  {
+    // start export on background thread, column headers taken now on FX thread
+    m_data = m_view.getData();
+    var header = new StringBuilder();
+    for ( int column = 0; column < m_dataColumns.length; column++ )
+    {
+      if ( column > 0 )
+        header.append( m_delimiter );
+      appendValue( header, m_data.getValue( m_dataColumns[column], TableData.HEADER ) );
+    }
+    byte[] headerBytes = header.append( "\r\n" ).toString().getBytes( StandardCharsets.UTF_8 );
+
+    m_exporting = true;
+    m_cancelled = false;
+    m_status.update( Level.NORMAL, "Exporting " + file.getFileName() );
+    var thread = new Thread( () -> export( file, headerBytes ), "ExportCsv" );
+    thread.setDaemon( true );
+    thread.start();
+  }
+
+  /******************************************* export ********************************************/
+  private void export( Path file, byte[] header )
+  {
+    // format blocks of rows in parallel, writing them in order with only a few blocks held in memory at once
+    var pool = ForkJoinPool.commonPool();
+    var tasks = new ArrayDeque<ForkJoinTask<byte[]>>();
+    var sizes = new ArrayDeque<Integer>();
+    long total = m_dataRows.length;
+    long done = 0L;
+    long reported = System.currentTimeMillis();
+
+    try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING ) )
+    {
+      write( channel, header );
+      int next = 0;
+      while ( !m_cancelled && ( next < m_dataRows.length || !tasks.isEmpty() ) )
+      {
+        // keep several blocks formatting ahead of the next block to be written
+        while ( next < m_dataRows.length && tasks.size() < pool.getParallelism() * 2 )
+        {
+          int first = next;
+          int end = Math.min( m_dataRows.length, first + BLOCK_ROWS );
+          tasks.add( pool.submit( () -> format( first, end ) ) );
+          sizes.add( end - first );
+          next = end;
+        }
+
+        write( channel, tasks.remove().join() );
+        done += sizes.remove();
+        if ( System.currentTimeMillis() - reported >= STATUS_MILLIS )
+        {
+          reported = System.currentTimeMillis();
+          m_status.update( Level.NORMAL, "Exporting " + file.getFileName() + " " + done * 100L / total + "%" );
+        }
+      }
+    }
+    catch ( Exception exception )
+    {
+      m_status.update( Level.ERROR, "Export failed " + file.getFileName() + " : " + exception.getMessage() );
+      m_cancelled = true;
+    }
+
+    // report outcome, deleting partial file if cancelled or failed
+    tasks.forEach( task -> task.cancel( false ) );
+    if ( m_cancelled )
+    {
+      try
+      {
+        Files.deleteIfExists( file );
+      }
+      catch ( IOException exception )
+      {
+        // partial file left behind, status already reports export did not complete
+      }
+      if ( !m_status.isError() )
+        m_status.update( Level.WARNING, "Export cancelled " + file.getFileName() );
+    }
+    else
+      m_status.update( Level.NORMAL, "Exported " + done + " rows to " + file.getFileName() );
+    m_exporting = false;
+  }
+
+  /******************************************* format ********************************************/
+  private byte[] format( int first, int end )
+  {
+    // return exported rows from first up to end (exclusive) formatted as CSV lines, only reading data through
+    // getValues as it is safe off the FX thread, view & axis state having been captured when export started
+    var text = new StringBuilder( 1 << 16 );
+    Object[][] values = m_data.getValues( m_dataColumns, Arrays.copyOfRange( m_dataRows, first, end ) );
+    for ( int row = 0; row < values.length && !m_cancelled; row++ )
+    {
+      for ( int column = 0; column < m_dataColumns.length; column++ )
+      {
+        if ( column > 0 )
+          text.append( m_delimiter );
+        if ( isSelected( m_viewColumns[column], m_viewRows[first + row] ) )
+          appendValue( text, values[row][column] );
+      }
+      text.append( "\r\n" );
+    }
+    return text.toString().getBytes( StandardCharsets.UTF_8 );
+  }
+
+  /***************************************** appendValue *****************************************/
+  private void appendValue( StringBuilder text, Object value )
+  {
+    // append value as CSV field using shared formatters for dates & times, quoted if needed
+    if ( value == null )
+      return;
+
+    String field;
+    if ( value instanceof Date date )
+      field = m_dateFormat.format( date.localDate() );
+    else if ( value instanceof Time time )
+      field = m_timeFormat.format( localTime( time ) );
+    else if ( value instanceof DateTime dateTime )
+      field = m_dateTimeFormat.format( dateTime.getDate().localDate().atTime( localTime( dateTime.getTime() ) ) );
+    else
+      field = value.toString();
+
+    boolean quote = false;
+    for ( int index = 0; index < field.length() && !quote; index++ )
+    {
+      char ch = field.charAt( index );
+      quote = ch == m_delimiter || ch == '"' || ch == '\n' || ch == '\r';
+    }
+    if ( quote )
+      text.append( '"' ).append( field.replace( "\"", "\"\"" ) ).append( '"' );
+    else
+      text.append( field );
+  }
+
+  /****************************************** localTime ******************************************/
+  private static LocalTime localTime( Time time )
+  {
+    // return equivalent LocalTime (end of day 24:00 becomes last millisecond of day)
+    int milliseconds = Math.min( time.getDayMilliseconds(), Time.MILLISECONDS_IN_DAY - 1 );
+    return LocalTime.ofNanoOfDay( milliseconds * 1_000_000L );
+  }
+
+  /***************************************** isSelected ******************************************/
+  private boolean isSelected( int column, int row )
+  {
+    // return true if cell to be exported (always when exporting whole table)
+    if ( m_areas == null )
+      return true;
+    for ( int[] area : m_areas )
+      if ( column >= area[0] && column <= area[2] && row >= area[1] && row <= area[3] )
+        return true;
+    return false;
+  }
+
+  /******************************************* setRows *******************************************/
+  private void setRows( int... rowRanges )
+  {
+    // set visible view rows within ranges (first & last pairs) and their data indexes, so export does not
+    // read the rows axis off the FX thread while it may be reordered or rows hidden
+    TableAxis rows = m_view.getRowsAxis();
+    int count = 0;
+    for ( int range = 0; range < rowRanges.length; range += 2 )
+      count += Math.max( rowRanges[range + 1] - rowRanges[range] + 1, 0 );
+
+    int[] views = new int[count];
+    int visible = 0;
+    for ( int range = 0; range < rowRanges.length; range += 2 )
+      for ( int row = rowRanges[range]; row <= rowRanges[range + 1]; row++ )
+        if ( rows.isIndexVisible( row ) )
+          views[visible++] = row;
+
+    m_viewRows = Arrays.copyOf( views, visible );
+    m_dataRows = new int[visible];
+    for ( int index = 0; index < visible; index++ )
+      m_dataRows[index] = rows.getDataIndex( m_viewRows[index] );
+  }
+
+  /***************************************** setColumns ******************************************/
+  private void setColumns( int... columnRanges )
+  {
+    // set visible view columns within ranges (first & last pairs) and their data indexes
+    TableAxis columns = m_view.getColumnsAxis();
+    var views = new ArrayList<Integer>();
+    for ( int range = 0; range < columnRanges.length; range += 2 )
+      for ( int column = columnRanges[range]; column <= columnRanges[range + 1]; column++ )
+        if ( columns.isIndexVisible( column ) )
+          views.add( column );
+
+    m_viewColumns = views.stream().mapToInt( Integer::intValue ).toArray();
+    m_dataColumns = Arrays.stream( m_viewColumns ).map( column -> columns.getDataIndex( column ) ).toArray();
+  }
+
+  /******************************************** merge ********************************************/
+  private static int[] merge( ArrayList<int[]> areas, int first, int last )
+  {
+    // return sorted non-overlapping ranges (first & last pairs) covering specified area range of every area
+    var sorted = new ArrayList<int[]>( areas );
+    sorted.removeIf( area -> area[last] < area[first] );
+    sorted.sort( ( area1, area2 ) -> Integer.compare( area1[first], area2[first] ) );
+
+    int[] ranges = new int[sorted.size() * 2];
+    int count = 0;
+    for ( int[] area : sorted )
+      if ( count > 0 && area[first] <= ranges[count - 1] + 1 )
+        ranges[count - 1] = Math.max( ranges[count - 1], area[last] );
+      else
+      {
+        ranges[count++] = area[first];
+        ranges[count++] = area[last];
+      }
+    return Arrays.copyOf( ranges, count );
+  }
+
+  /******************************************** write ********************************************/
+  private static void write( FileChannel channel, byte[] bytes ) throws IOException
+  {
+    // write all bytes to file channel
+    var buffer = ByteBuffer.wrap( bytes );
+    while ( buffer.hasRemaining() )
+      channel.write( buffer );
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[exporting="
+        + m_exporting + " cancelled=" + m_cancelled + "]";
+  }
+}
\ No newline at end of file
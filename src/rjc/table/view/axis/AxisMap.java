@@ -18,7 +18,7 @@
 
 package rjc.table.view.axis;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Set;
 
 import rjc.table.signal.ObservableInteger.ReadOnlyInteger;
@@ -29,8 +29,15 @@ import rjc.table.signal.ObservableInteger.ReadOnlyInteger;
 
 public class AxisMap extends AxisSize
 {
-  // array mapping from view-index to data-index
-  private ArrayList<Integer> m_dataIndexFromViewIndex = new ArrayList<>();
+  // mapping from view-index to data-index held as segments, each mapping a run of consecutive
+  // view-indexes to consecutive data-indexes, with last segment continuing to end of axis
+  private int[] m_viewStarts = new int[8]; // first view-index of each segment (sorted)
+  private int[] m_dataStarts = new int[8]; // data-index for first view-index of each segment
+  private int   m_segments;                // number of segments
+
+  // inverse mapping from data-index to view-index, same segments sorted by data-index
+  private int[] m_inverseDataStarts;       // first data-index of each segment (sorted)
+  private int[] m_inverseViewStarts;       // view-index for first data-index of each segment
 
   /**************************************** constructor ******************************************/
   public AxisMap( ReadOnlyInteger countProperty )
@@ -43,8 +50,12 @@ public class AxisMap extends AxisSize
   @Override
   public void reset()
   {
-    // clear all axis view to data mapping, and call super reset
-    m_dataIndexFromViewIndex.clear();
+    // clear all axis view to data mapping (single identity segment), and call super reset
+    m_viewStarts = new int[8];
+    m_dataStarts = new int[8];
+    m_segments = 1;
+    m_inverseDataStarts = new int[1];
+    m_inverseViewStarts = new int[1];
     super.reset();
   }
 
@@ -52,10 +63,13 @@ public class AxisMap extends AxisSize
   public int getDataIndex( int viewIndex )
   {
     // return the data-model index from the table-view index
-    if ( viewIndex >= FIRSTCELL && viewIndex < m_dataIndexFromViewIndex.size() )
-      return m_dataIndexFromViewIndex.get( viewIndex );
+    if ( viewIndex >= FIRSTCELL && viewIndex < getCount() )
+    {
+      int segment = getSegment( m_viewStarts, m_segments, viewIndex );
+      return m_dataStarts[segment] + viewIndex - m_viewStarts[segment];
+    }
 
-    // if not in mapping but within count, then return view index as not re-ordered
+    // if header or invalid, then return view index as not re-ordered
     if ( viewIndex >= INVALID && viewIndex < getCount() )
       return viewIndex;
 
@@ -63,57 +77,156 @@ public class AxisMap extends AxisSize
     return INVALID;
   }
 
+  /**************************************** getViewIndex *****************************************/
+  public int getViewIndex( int dataIndex )
+  {
+    // return the table-view index from the data-model index
+    if ( dataIndex >= FIRSTCELL && dataIndex < getCount() )
+    {
+      int segment = getSegment( m_inverseDataStarts, m_segments, dataIndex );
+      return m_inverseViewStarts[segment] + dataIndex - m_inverseDataStarts[segment];
+    }
+
+    // if header or invalid, then return data index as not re-ordered
+    if ( dataIndex >= INVALID && dataIndex < getCount() )
+      return dataIndex;
+
+    // data index is out of bounds so return invalid
+    return INVALID;
+  }
+
+  /**************************************** getSegmentCount **************************************/
+  public int getSegmentCount()
+  {
+    // return number of segments in view-to-data mapping (one if not re-ordered)
+    return m_segments;
+  }
+
   /******************************************* reorder *******************************************/
   public int reorder( Set<Integer> toBeMovedIndexes, int insertIndex )
   {
     // reorder mapping between view-indexes and data-indexes
-    var beforeHash = getIndexMappingHash();
-    var movedSorted = new ArrayList<Integer>( toBeMovedIndexes );
-    movedSorted.sort( null );
-
-    // ensure data-view mapping array is big enough
-    int neededSize = Math.max( insertIndex, movedSorted.getLast() );
-    while ( m_dataIndexFromViewIndex.size() <= neededSize )
-      m_dataIndexFromViewIndex.add( m_dataIndexFromViewIndex.size() );
-
-    // remove the indexes to be moved from mapping (highest to lowest to preserve position)
-    var movedList = new ArrayList<Integer>( movedSorted.size() );
-    for ( int i = movedSorted.size(); i-- > 0; )
-      movedList.add( m_dataIndexFromViewIndex.remove( (int) movedSorted.get( i ) ) );
-
-    // adjust insert-index to take account of removed entries
-    int oldInsert = insertIndex;
-    for ( int index : movedSorted )
-      if ( index < oldInsert )
-        insertIndex--;
-      else
-        break;
-
-    // re-insert moved indexes back into mapping at adjusted insert position and in correct order
-    m_dataIndexFromViewIndex.addAll( insertIndex, movedList.reversed() );
+    int[] movedSorted = toBeMovedIndexes.stream().mapToInt( Integer::intValue ).sorted().toArray();
+    if ( movedSorted.length == 0 )
+      return INVALID;
 
-    // compare mapping hash to see if changed from before reorder, if no change return INVALID
-    if ( getIndexMappingHash() == beforeHash )
+    // build new segments from old view ranges: not-moved before insert, moved, then not-moved after insert
+    var newMap = new Builder( m_segments + 2 * movedSorted.length + 2 );
+    appendNotMoved( newMap, movedSorted, FIRSTCELL, insertIndex );
+    int start = movedSorted[0];
+    for ( int index = 1; index <= movedSorted.length; index++ )
+      if ( index == movedSorted.length || movedSorted[index] != movedSorted[index - 1] + 1 )
+      {
+        appendRange( newMap, start, movedSorted[index - 1] + 1 );
+        if ( index < movedSorted.length )
+          start = movedSorted[index];
+      }
+    appendNotMoved( newMap, movedSorted, insertIndex, Integer.MAX_VALUE );
+
+    // compare segments to see if changed from before reorder, if no change return INVALID
+    if ( Arrays.equals( m_viewStarts, 0, m_segments, newMap.viewStarts, 0, newMap.count )
+        && Arrays.equals( m_dataStarts, 0, m_segments, newMap.dataStarts, 0, newMap.count ) )
       return INVALID;
 
-    // truncate pixel cache in case sizes also moved
-    int min = Math.min( insertIndex, movedSorted.getFirst() );
-    truncatePixelCaches( min, 0 );
+    m_viewStarts = newMap.viewStarts;
+    m_dataStarts = newMap.dataStarts;
+    m_segments = newMap.count;
+    updateInverse();
+
+    // adjust insert-index to take account of moved entries before it
+    int before = Arrays.binarySearch( movedSorted, insertIndex );
+    insertIndex -= before >= 0 ? before : -before - 1;
+
+    // move size exceptions in case sizes also moved
     reorderExceptions( movedSorted, insertIndex );
 
     // return start index of reordered
     return insertIndex;
   }
 
-  /************************************* getIndexMappingHash *************************************/
-  private int getIndexMappingHash()
+  /**************************************** updateInverse ****************************************/
+  private void updateInverse()
   {
-    // remove any unneeded mapping, and return hash-code of resulting array
-    int index = m_dataIndexFromViewIndex.size() - 1;
-    while ( index >= 0 && m_dataIndexFromViewIndex.get( index ) == index )
-      m_dataIndexFromViewIndex.remove( index-- );
+    // rebuild inverse mapping by sorting segments on data-index (packed with segment so no boxing)
+    long[] order = new long[m_segments];
+    for ( int segment = 0; segment < m_segments; segment++ )
+      order[segment] = (long) m_dataStarts[segment] << 32 | segment;
+    Arrays.sort( order );
+
+    m_inverseDataStarts = new int[m_segments];
+    m_inverseViewStarts = new int[m_segments];
+    for ( int pos = 0; pos < m_segments; pos++ )
+    {
+      int segment = (int) order[pos];
+      m_inverseDataStarts[pos] = m_dataStarts[segment];
+      m_inverseViewStarts[pos] = m_viewStarts[segment];
+    }
+  }
+
+  /**************************************** appendNotMoved ***************************************/
+  private void appendNotMoved( Builder newMap, int[] movedSorted, int from, int to )
+  {
+    // append view ranges between from (inclusive) and to (exclusive) that are not being moved
+    int start = from;
+    for ( int index : movedSorted )
+      if ( index >= from && index < to )
+      {
+        if ( index > start )
+          appendRange( newMap, start, index );
+        start = index + 1;
+      }
+
+    if ( to > start )
+      appendRange( newMap, start, to );
+  }
+
+  /***************************************** appendRange *****************************************/
+  private void appendRange( Builder newMap, int from, int to )
+  {
+    // append current mapping for view range from (inclusive) to (exclusive, MAX_VALUE is end of axis)
+    int segment = getSegment( m_viewStarts, m_segments, from );
+    while ( from < to )
+    {
+      int end = segment + 1 < m_segments ? Math.min( to, m_viewStarts[segment + 1] ) : to;
+      newMap.add( m_dataStarts[segment] + from - m_viewStarts[segment], end - from );
+      from = end;
+      segment++;
+    }
+  }
+
+  /***************************************** getSegment ******************************************/
+  private static int getSegment( int[] starts, int count, int index )
+  {
+    // return segment containing index by binary search of segment starts
+    int pos = Arrays.binarySearch( starts, 0, count, index );
+    return pos >= 0 ? pos : -pos - 2;
+  }
 
-    return m_dataIndexFromViewIndex.hashCode();
+  /******************************************* Builder *******************************************/
+  private static class Builder
+  {
+    int[] viewStarts; // first view-index of each new segment
+    int[] dataStarts; // data-index for first view-index of each new segment
+    int   count;      // number of new segments
+    int   position;   // next view-index to be added
+
+    Builder( int capacity )
+    {
+      viewStarts = new int[capacity];
+      dataStarts = new int[capacity];
+    }
+
+    void add( int dataStart, int length )
+    {
+      // add run of data-indexes, merging with previous segment if continues it
+      if ( count == 0 || dataStarts[count - 1] + position - viewStarts[count - 1] != dataStart )
+      {
+        viewStarts[count] = position;
+        dataStarts[count] = dataStart;
+        count++;
+      }
+      position += length;
+    }
   }
 
 }
@@ -18,17 +18,16 @@
 
 package rjc.table.view.axis;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeSet;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
 
+import rjc.table.Utils;
 import rjc.table.signal.IListener;
 import rjc.table.signal.ISignal;
 import rjc.table.signal.ObservableDouble.ReadOnlyDouble;
-import rjc.table.signal.ObservableInteger;
 import rjc.table.signal.ObservableInteger.ReadOnlyInteger;
+import rjc.table.signal.ObservableLong;
+import rjc.table.signal.ObservableLong.ReadOnlyLong;
 
 /*************************************************************************************************/
 /****************** Table axis with header & body cell sizing including zooming ******************/
@@ -43,20 +42,33 @@ public class AxisSize extends AxisBase implements IListener
   private ReadOnlyDouble        m_zoomProperty;
 
   // exceptions to default size (negative are hidden)
-  private Map<Integer, Integer> m_sizeExceptions   = new HashMap<>();
+  private SizeExceptions        m_sizeExceptions   = new SizeExceptions();
   final static public int       HIDDEN_DEFAULT     = Integer.MIN_VALUE;
 
-  // cached cell index to start pixel coordinate
-  private ArrayList<Integer>    m_startPixelCache  = new ArrayList<>();
+  // run-length index of hidden cells to skip over hidden ranges
+  private HiddenRuns            m_hiddenRuns       = new HiddenRuns();
 
-  // observable integer for cached axis size in pixels (includes header)
-  private ObservableInteger     m_totalPixelsCache = new ObservableInteger( INVALID );
+  // zoom independent cell index to start nominal size (null when needs rebuilding)
+  private PixelIndex            m_nominalIndex;
+
+  // quantised cell index to start pixel for recently used zoom levels
+  private PixelIndexCache       m_zoomIndexes      = new PixelIndexCache();
+
+  // cell index to start pixel for current zoom (null when needs selecting or rebuilding)
+  private PixelIndex            m_pixelIndex;
+
+  // observable long for cached axis size in pixels (includes header)
+  private ObservableLong        m_totalPixelsCache = new ObservableLong( INVALID );
+
+  // canvas-local pixel coordinates are clamped to this so can be added without int overflow
+  final static public int       PIXEL_LIMIT        = 1 << 30;
 
   /**************************************** constructor ******************************************/
   public AxisSize( ReadOnlyInteger countProperty )
   {
-    // pass count property to super class
+    // pass count property to super class, and listen for count changes
     super( countProperty );
+    countProperty.addListener( this );
   }
 
   /******************************************** reset ********************************************/
@@ -67,7 +79,8 @@ public class AxisSize extends AxisBase implements IListener
     m_minimumSize = 20;
     m_headerSize = 50;
     m_sizeExceptions.clear();
-    m_startPixelCache.clear();
+    m_hiddenRuns.clear();
+    invalidatePixelIndexes();
     m_totalPixelsCache.set( INVALID );
   }
 
@@ -85,19 +98,28 @@ public class AxisSize extends AxisBase implements IListener
       int oldCount = (int) msg[0];
       int newCount = getCount();
       if ( newCount < oldCount )
-        for ( int key : m_sizeExceptions.keySet() )
-          if ( key >= newCount )
-            m_sizeExceptions.remove( key );
+      {
+        m_sizeExceptions.truncate( newCount );
+        m_hiddenRuns.truncate( newCount );
+      }
 
-      // truncate cell start cache if new size smaller
-      if ( newCount < m_startPixelCache.size() )
-        m_startPixelCache.subList( newCount, m_startPixelCache.size() ).clear();
+      // pixel indexes need rebuilding if count reduced or new count beyond their capacity
+      if ( newCount < oldCount )
+        invalidatePixelIndexes();
+      else
+      {
+        if ( m_nominalIndex != null && newCount > m_nominalIndex.getCapacity() )
+          m_nominalIndex = null;
+        if ( m_pixelIndex != null && newCount > m_pixelIndex.getCapacity() )
+          m_pixelIndex = null;
+        m_zoomIndexes.removeBelowCapacity( newCount );
+      }
     }
 
     else if ( sender == m_zoomProperty )
     {
-      // zoom value has changed so clear the pixel caches
-      m_startPixelCache.clear();
+      // zoom value has changed so select pixel index for new zoom (kept if recently used)
+      m_pixelIndex = null;
       m_totalPixelsCache.set( INVALID );
     }
   }
@@ -131,7 +153,7 @@ public class AxisSize extends AxisBase implements IListener
         throw new IllegalArgumentException( "Default size must be at least one " + defaultSize );
 
       m_totalPixelsCache.set( INVALID );
-      m_startPixelCache.clear();
+      invalidatePixelIndexes();
       m_defaultSize = defaultSize;
     }
   }
@@ -152,17 +174,17 @@ public class AxisSize extends AxisBase implements IListener
 
       // if minimum size increasing, check exceptions
       if ( minSize > m_minimumSize )
-        for ( var exception : m_sizeExceptions.entrySet() )
+        for ( int pos = 0; pos < m_sizeExceptions.size(); pos++ )
         {
-          int size = exception.getValue();
+          int size = m_sizeExceptions.valueAt( pos );
           if ( size < 0 && size > -minSize )
-            exception.setValue( -minSize );
+            m_sizeExceptions.setValueAt( pos, -minSize );
           else if ( size > 0 && size < minSize )
-            exception.setValue( minSize );
+            m_sizeExceptions.setValueAt( pos, minSize );
         }
 
       m_totalPixelsCache.set( INVALID );
-      m_startPixelCache.clear();
+      invalidatePixelIndexes();
       m_minimumSize = minSize;
     }
   }
@@ -174,13 +196,12 @@ public class AxisSize extends AxisBase implements IListener
     if ( headerSize < 0 || headerSize >= 65536 )
       throw new IllegalArgumentException( "Header size must be at least zero " + headerSize );
 
-    // if new size is different, clear cell position start cache
+    // if new size is different, update total (pixel index excludes header so still valid)
     if ( m_headerSize != headerSize )
     {
-      if ( getTotalPixels() != INVALID )
-        m_totalPixelsCache.set( getTotalPixels() - getHeaderPixels() + zoom( headerSize ) );
+      if ( m_totalPixelsCache.get() != INVALID )
+        m_totalPixelsCache.set( m_totalPixelsCache.get() - getHeaderPixels() + zoom( headerSize ) );
 
-      m_startPixelCache.clear();
       m_headerSize = headerSize;
     }
   }
@@ -197,36 +218,143 @@ public class AxisSize extends AxisBase implements IListener
       newSize = m_minimumSize;
 
     // create a size exception (even if same as default)
-    int oldSize = m_sizeExceptions.getOrDefault( index, m_defaultSize );
-    m_sizeExceptions.put( index, newSize );
+    int oldSize = m_sizeExceptions.put( index, newSize, m_defaultSize );
+    if ( newSize > 0 )
+      m_hiddenRuns.show( index );
+    else
+      m_hiddenRuns.hide( index );
 
-    // if new size is different, update body size and truncate cell position start cache if needed
+    // if new size is different, update body size and cell position start index
     if ( newSize != oldSize )
-      truncatePixelCaches( index, zoom( newSize ) - zoom( oldSize ) );
+      updatePixelCaches( index, oldSize, newSize );
+  }
+
+  /**************************************** setIndexSizes ****************************************/
+  public void setIndexSizes( int[] sortedIndexes, int newSize )
+  {
+    // set same size for many cell indexes (sorted ascending) with a single cache update & signal
+    int size = newSize < m_minimumSize ? m_minimumSize : newSize;
+    updateIndexSizes( sortedIndexes, index -> size );
+  }
+
+  /**************************************** setIndexSizes ****************************************/
+  public void setIndexSizes( int[] sortedIndexes, SizeExceptions sizes )
+  {
+    // set cell indexes (sorted ascending) to their size exception in sizes, or default if none
+    updateIndexSizes( sortedIndexes, index -> sizes.get( index, SizeExceptions.NONE ) );
+  }
+
+  /*************************************** clearIndexSizes ***************************************/
+  public void clearIndexSizes( int[] sortedIndexes )
+  {
+    // remove size exceptions for many cell indexes (sorted ascending) with a single cache update & signal
+    updateIndexSizes( sortedIndexes, index -> SizeExceptions.NONE );
+  }
+
+  /************************************** updateIndexSizes ***************************************/
+  private void updateIndexSizes( int[] sortedIndexes, IntUnaryOperator newSizes )
+  {
+    // check every cell index is valid & strictly ascending before changing anything, so axis never half-updated
+    for ( int position = 0; position < sortedIndexes.length; position++ )
+    {
+      int index = sortedIndexes[position];
+      if ( index < FIRSTCELL || index >= getCount() )
+        throw new IndexOutOfBoundsException( "Index=" + index + " but count=" + getCount() );
+      if ( position > 0 && index <= sortedIndexes[position - 1] )
+        throw new IllegalArgumentException( "Indexes not ascending or duplicated " + sortedIndexes[position - 1]
+            + " then " + index );
+    }
+
+    // update pixel index & hidden runs for each cell index, accumulating total change
+    long deltaPixels = 0;
+    for ( int index : sortedIndexes )
+    {
+      int oldSize = m_sizeExceptions.get( index, m_defaultSize );
+      int newSize = newSizes.applyAsInt( index );
+      if ( newSize == SizeExceptions.NONE )
+        newSize = m_defaultSize;
+
+      if ( newSize != oldSize )
+      {
+        deltaPixels += pixels( newSize ) - pixels( oldSize );
+        updatePixelIndexes( index, oldSize, newSize );
+      }
+
+      if ( newSize > 0 )
+        m_hiddenRuns.show( index );
+      else
+        m_hiddenRuns.hide( index );
+    }
+
+    // merge new sizes into exceptions in one pass, and update total pixels once
+    m_sizeExceptions.merge( sortedIndexes, newSizes );
+    if ( deltaPixels != 0 && m_totalPixelsCache.get() != INVALID )
+      m_totalPixelsCache.set( m_totalPixelsCache.get() + deltaPixels );
+  }
+
+  /************************************** setSizeExceptions **************************************/
+  public void setSizeExceptions( SizeExceptions exceptions )
+  {
+    // replace all size exceptions (for example to restore a copy from getSizeExceptions)
+    m_sizeExceptions = new SizeExceptions( exceptions );
+    m_sizeExceptions.truncate( getCount() );
+    m_hiddenRuns.rebuild( m_sizeExceptions );
+    invalidatePixelIndexes();
+    m_totalPixelsCache.set( INVALID );
+  }
+
+  /*************************************** setIndexHidden ****************************************/
+  public void setIndexHidden( int index, boolean hide )
+  {
+    // check cell index is valid
+    if ( index < FIRSTCELL || index >= getCount() )
+      throw new IndexOutOfBoundsException( "Index=" + index + " but count=" + getCount() );
+
+    // hidden cells keep their size as negative exception so it can be restored when shown again
+    int oldSize = m_sizeExceptions.get( index, m_defaultSize );
+    if ( hide == oldSize <= 0 )
+      return;
+
+    int newSize;
+    if ( hide )
+    {
+      newSize = m_sizeExceptions.indexOf( index ) < 0 ? HIDDEN_DEFAULT : -oldSize;
+      m_sizeExceptions.put( index, newSize, m_defaultSize );
+      m_hiddenRuns.hide( index );
+    }
+    else
+    {
+      if ( oldSize == HIDDEN_DEFAULT || oldSize == 0 )
+      {
+        m_sizeExceptions.remove( index, m_defaultSize );
+        newSize = m_defaultSize;
+      }
+      else
+      {
+        newSize = -oldSize;
+        m_sizeExceptions.put( index, newSize, m_defaultSize );
+      }
+      m_hiddenRuns.show( index );
+    }
+
+    updatePixelCaches( index, oldSize, newSize );
   }
 
   /*************************************** getTotalPixels ****************************************/
-  public int getTotalPixels()
+  public long getTotalPixels()
   {
     // return axis total size in pixels (including header)
     if ( m_totalPixelsCache.get() == INVALID )
     {
-      // cached size is invalid, so re-calculate
-      int defaultCount = getCount() - m_sizeExceptions.size();
-
-      int pixels = getHeaderPixels();
-      for ( int size : m_sizeExceptions.values() )
-        if ( size > 0 /* not hidden */ )
-          pixels += zoom( size );
-
-      m_totalPixelsCache.set( pixels + defaultCount * zoom( m_defaultSize ) );
+      // cached size is invalid, so re-calculate from pixel index
+      m_totalPixelsCache.set( getHeaderPixels() + getPixelIndex().getStart( getCount() ) );
     }
 
     return m_totalPixelsCache.get();
   }
 
   /*********************************** getTotalPixelsProperty ************************************/
-  public ReadOnlyInteger getTotalPixelsProperty()
+  public ReadOnlyLong getTotalPixelsProperty()
   {
     // return return read-only version of axis total pixels size
     return m_totalPixelsCache.getReadOnly();
@@ -240,12 +368,22 @@ public class AxisSize extends AxisBase implements IListener
       return zoom( m_headerSize );
 
     // return cell size from exception or default
-    int size = m_sizeExceptions.getOrDefault( index, m_defaultSize );
-    return size > 0 ? zoom( size ) : 0;
+    return pixels( m_sizeExceptions.get( index, m_defaultSize ) );
   }
 
   /**************************************** getStartPixel ****************************************/
-  public int getStartPixel( int index, int scroll )
+  public int getStartPixel( int index, long scroll )
+  {
+    // header is not scrolled so always starts at zero
+    if ( index == HEADER )
+      return 0;
+
+    // return canvas-local start pixel coordinate for cell index taking scroll into account
+    return (int) Utils.clamp( getStartPosition( index ) - scroll, -PIXEL_LIMIT, PIXEL_LIMIT );
+  }
+
+  /************************************** getStartPosition ***************************************/
+  public long getStartPosition( int index )
   {
     // check index is valid
     if ( index < HEADER )
@@ -257,28 +395,12 @@ public class AxisSize extends AxisBase implements IListener
     if ( index == HEADER )
       return 0;
 
-    // if cell index is beyond cache, extend cache
-    if ( index >= m_startPixelCache.size() )
-    {
-      // index zero starts after header
-      if ( m_startPixelCache.isEmpty() )
-        m_startPixelCache.add( getHeaderPixels() );
-
-      int position = m_startPixelCache.size() - 1;
-      int start = m_startPixelCache.get( position );
-      while ( index > position )
-      {
-        start += getIndexPixels( position++ );
-        m_startPixelCache.add( start );
-      }
-    }
-
-    // return start pixel coordinate for cell index taking scroll into account
-    return m_startPixelCache.get( index ) - scroll;
+    // return start pixel coordinate for cell index from start of axis ignoring scroll
+    return getHeaderPixels() + getPixelIndex().getStart( index );
   }
 
   /*********************************** getIndexFromCoordinate ************************************/
-  public int getIndexFromCoordinate( int coordinate, int scroll )
+  public int getIndexFromCoordinate( int coordinate, long scroll )
   {
     // check if before table
     if ( coordinate < 0 )
@@ -289,54 +411,118 @@ public class AxisSize extends AxisBase implements IListener
       return HEADER;
 
     // check if after table
-    coordinate += scroll;
-    if ( coordinate >= getTotalPixels() )
+    long position = coordinate + scroll;
+    if ( position >= getTotalPixels() )
       return AFTER;
 
-    // check within start cache
-    int position = m_startPixelCache.size() - 1;
-    int start = position < 0 ? 0 : m_startPixelCache.get( position );
-    if ( coordinate > start )
+    // find position by descending the pixel index
+    int index = getPixelIndex().getIndex( position - getHeaderPixels() );
+    return index < getCount() ? index : getCount() - 1;
+  }
+
+  /*************************************** getNominalStart ***************************************/
+  public long getNominalStart( int index )
+  {
+    // return zoom independent start for cell index from start of axis (including header)
+    if ( index < FIRSTCELL )
+      return 0;
+    if ( index > getCount() )
+      index = getCount();
+
+    return m_headerSize + getNominalIndex().getStart( index );
+  }
+
+  /*************************************** getNominalTotal ***************************************/
+  public long getNominalTotal()
+  {
+    // return zoom independent axis total size (including header)
+    return m_headerSize + getNominalIndex().getStart( getCount() );
+  }
+
+  /*************************************** getNominalIndex ***************************************/
+  private PixelIndex getNominalIndex()
+  {
+    // return zoom independent cell start index, rebuilding if invalid
+    if ( m_nominalIndex == null )
+      m_nominalIndex = buildPixelIndex( 1.0 );
+
+    return m_nominalIndex;
+  }
+
+  /*************************************** getPixelIndex *****************************************/
+  private PixelIndex getPixelIndex()
+  {
+    // return cell start pixel index for current zoom, from recently used zoom levels if possible
+    if ( m_pixelIndex == null )
     {
-      while ( coordinate > start )
+      double zoom = getZoom();
+      if ( zoom == 1.0 )
+        m_pixelIndex = getNominalIndex();
+      else
       {
-        start += getIndexPixels( position++ );
-        m_startPixelCache.add( start );
+        m_pixelIndex = m_zoomIndexes.get( zoom );
+        if ( m_pixelIndex == null )
+        {
+          m_pixelIndex = buildPixelIndex( zoom );
+          m_zoomIndexes.put( zoom, m_pixelIndex );
+        }
       }
-      return coordinate == start ? position : position - 1;
     }
 
-    // find position by binary search of cache
-    int startPos = 0;
-    int endPos = m_startPixelCache.size();
-    while ( startPos != endPos )
-    {
-      int rowPos = ( endPos + startPos ) / 2;
-      if ( m_startPixelCache.get( rowPos ) <= coordinate )
-        startPos = rowPos + 1;
-      else
-        endPos = rowPos;
-    }
-    return startPos - 1;
+    return m_pixelIndex;
   }
 
-  /************************************* truncatePixelCaches *************************************/
-  protected void truncatePixelCaches( int newCacheSize, int deltaPixels )
+  /*************************************** buildPixelIndex ***************************************/
+  private PixelIndex buildPixelIndex( double zoom )
+  {
+    // build cell start pixel index for zoom from default size and size exceptions
+    int defaultPixels = pixels( m_defaultSize, zoom );
+    var pixelIndex = new PixelIndex( getCount(), defaultPixels );
+    m_sizeExceptions.forEach( ( index, size ) -> pixelIndex.add( index, pixels( size, zoom ) - defaultPixels ) );
+
+    return pixelIndex;
+  }
+
+  /************************************** updatePixelCaches **************************************/
+  protected void updatePixelCaches( int index, int oldSize, int newSize )
   {
     // update body size cache if not invalid
-    if ( m_totalPixelsCache.get() != INVALID )
+    int deltaPixels = pixels( newSize ) - pixels( oldSize );
+    if ( deltaPixels != 0 && m_totalPixelsCache.get() != INVALID )
       m_totalPixelsCache.set( m_totalPixelsCache.get() + deltaPixels );
 
-    // truncate cache length if greater than specified new size
-    if ( m_startPixelCache.size() > newCacheSize )
-      m_startPixelCache.subList( newCacheSize, m_startPixelCache.size() ).clear();
+    // update nominal and all cached zoom level pixel indexes
+    updatePixelIndexes( index, oldSize, newSize );
+  }
+
+  /************************************* updatePixelIndexes **************************************/
+  private void updatePixelIndexes( int index, int oldSize, int newSize )
+  {
+    // update nominal and each cached zoom pixel index for cell size change (current is one of these)
+    if ( m_nominalIndex != null )
+      m_nominalIndex.add( index, pixels( newSize, 1.0 ) - pixels( oldSize, 1.0 ) );
+
+    for ( int pos = 0; pos < m_zoomIndexes.size(); pos++ )
+    {
+      double zoom = m_zoomIndexes.zoomAt( pos );
+      m_zoomIndexes.indexAt( pos ).add( index, pixels( newSize, zoom ) - pixels( oldSize, zoom ) );
+    }
+  }
+
+  /*********************************** invalidatePixelIndexes ************************************/
+  private void invalidatePixelIndexes()
+  {
+    // discard nominal and all cached zoom level pixel indexes
+    m_nominalIndex = null;
+    m_zoomIndexes.clear();
+    m_pixelIndex = null;
   }
 
   /************************************** getSizeExceptions **************************************/
-  public Map<Integer, Integer> getSizeExceptions()
+  public SizeExceptions getSizeExceptions()
   {
-    // return size exceptions
-    return Collections.unmodifiableMap( m_sizeExceptions );
+    // return copy of size exceptions
+    return new SizeExceptions( m_sizeExceptions );
   }
 
   /************************************* clearSizeExceptions *************************************/
@@ -344,7 +530,8 @@ public class AxisSize extends AxisBase implements IListener
   {
     // clear all size exceptions
     m_sizeExceptions.clear();
-    m_startPixelCache.clear();
+    m_hiddenRuns.clear();
+    invalidatePixelIndexes();
     m_totalPixelsCache.set( INVALID );
   }
 
@@ -356,44 +543,45 @@ public class AxisSize extends AxisBase implements IListener
       throw new IndexOutOfBoundsException( "cell index=" + cellIndex + " but count=" + getCount() );
 
     // remove cell index size exception if exists
-    if ( m_sizeExceptions.remove( cellIndex ) != null )
+    int pos = m_sizeExceptions.indexOf( cellIndex );
+    if ( pos >= 0 )
     {
-      m_totalPixelsCache.set( INVALID );
-      m_startPixelCache.clear();
+      int oldSize = m_sizeExceptions.valueAt( pos );
+      m_sizeExceptions.removeAt( pos );
+      m_hiddenRuns.show( cellIndex );
+      updatePixelCaches( cellIndex, oldSize, m_defaultSize );
     }
   }
 
   /************************************** reorderExceptions **************************************/
-  protected void reorderExceptions( ArrayList<Integer> movedSorted, int insertIndex )
+  protected void reorderExceptions( int[] movedSorted, int insertIndex )
   {
-    // update size exceptions taking into account moves
-    var newSizeExceptions = new HashMap<Integer, Integer>();
-    for ( int exceptionIndex : new TreeSet<Integer>( m_sizeExceptions.keySet() ) )
+    // update size exceptions taking into account moves, packing index & size so can sort without boxing
+    int count = m_sizeExceptions.size();
+    long[] entries = new long[count];
+    for ( int pos = 0; pos < count; pos++ )
     {
-      int moved = movedSorted.indexOf( exceptionIndex );
-      if ( moved >= 0 )
-        // moved index
-        newSizeExceptions.put( insertIndex + moved, m_sizeExceptions.get( exceptionIndex ) );
-      else
-        // not-moved index
-        newSizeExceptions.put( adjustedIndex( exceptionIndex, insertIndex, movedSorted ),
-            m_sizeExceptions.get( exceptionIndex ) );
+      int exceptionIndex = m_sizeExceptions.keyAt( pos );
+      int moved = Arrays.binarySearch( movedSorted, exceptionIndex );
+      int newIndex = moved >= 0 ? insertIndex + moved
+          : adjustedIndex( exceptionIndex, insertIndex, -moved - 1, movedSorted.length );
+      entries[pos] = (long) newIndex << 32 | m_sizeExceptions.valueAt( pos ) & 0xFFFFFFFFL;
     }
-    m_sizeExceptions = newSizeExceptions;
+
+    Arrays.sort( entries );
+    m_sizeExceptions.setSorted( entries, count );
+    m_hiddenRuns.rebuild( m_sizeExceptions );
+    invalidatePixelIndexes();
   }
 
   /**************************************** adjustedIndex ****************************************/
-  private Integer adjustedIndex( int exceptionIndex, int insertIndex, ArrayList<Integer> movedSorted )
+  private int adjustedIndex( int exceptionIndex, int insertIndex, int before, int movedCount )
   {
-    // count of moved before exception index
-    int before = 0;
-    while ( movedSorted.size() > before && movedSorted.get( before ) < exceptionIndex )
-      before++;
-
+    // return new index for not-moved exception index given count of moved before it
     if ( exceptionIndex < insertIndex + before )
       return exceptionIndex - before;
 
-    return exceptionIndex - before + movedSorted.size();
+    return exceptionIndex - before + movedCount;
   }
 
   /*************************************** setZoomProperty ***************************************/
@@ -407,27 +595,59 @@ public class AxisSize extends AxisBase implements IListener
     if ( zoomProperty != null )
       zoomProperty.addListener( this );
 
-    // adopt new zoom
+    // adopt new zoom, pixel indexes for recently used zoom levels remain valid
     m_zoomProperty = zoomProperty;
-    m_startPixelCache.clear();
+    m_pixelIndex = null;
     m_totalPixelsCache.set( INVALID );
   }
 
+  /******************************************* getZoom *******************************************/
+  public double getZoom()
+  {
+    // return current zoom factor (1.0 if no zoom property)
+    return m_zoomProperty == null ? 1.0 : m_zoomProperty.get();
+  }
+
   /******************************************** zoom *********************************************/
   private int zoom( int size )
   {
     // convenience method to return pixels from size
-    if ( m_zoomProperty == null )
-      return size;
+    return (int) ( size * getZoom() );
+  }
 
-    return (int) ( size * m_zoomProperty.get() );
+  /******************************************* pixels ********************************************/
+  private int pixels( int size )
+  {
+    // convenience method to return pixels from size exception or default (hidden are zero)
+    return pixels( size, getZoom() );
+  }
+
+  /******************************************* pixels ********************************************/
+  private static int pixels( int size, double zoom )
+  {
+    // return pixels at zoom from size exception or default (hidden are zero)
+    return size > 0 ? (int) ( size * zoom ) : 0;
   }
 
   /*************************************** isIndexVisible ****************************************/
   public boolean isIndexVisible( int index )
   {
     // return true if cell is visible body cell
-    return index >= FIRSTCELL && index < getCount() && m_sizeExceptions.getOrDefault( index, m_defaultSize ) > 0;
+    return index >= FIRSTCELL && index < getCount() && m_sizeExceptions.get( index, m_defaultSize ) > 0;
+  }
+
+  /*************************************** getVisibleCount ***************************************/
+  public int getVisibleCount()
+  {
+    // return count of visible body cells
+    return getCount() - m_hiddenRuns.getHiddenCount();
+  }
+
+  /**************************************** getHiddenRuns ****************************************/
+  protected HiddenRuns getHiddenRuns()
+  {
+    // return run-length index of hidden cells
+    return m_hiddenRuns;
   }
 
 }
\ No newline at end of file
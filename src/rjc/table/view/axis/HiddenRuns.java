@@ -0,0 +1,213 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.axis;
+
+import java.util.Arrays;
+
+/*************************************************************************************************/
+/*************** Run-length index of hidden axis cells for skipping hidden ranges ****************/
+/*************************************************************************************************/
+
+public class HiddenRuns
+{
+  // runs are kept sorted, non-overlapping and non-adjacent (adjacent runs are always merged)
+  private int[] m_starts = new int[16]; // first hidden index of each run
+  private int[] m_ends   = new int[16]; // index after last hidden index of each run
+  private int   m_count;                // number of runs
+  private int   m_hidden;               // total number of hidden indexes
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all hidden runs
+    m_count = 0;
+    m_hidden = 0;
+  }
+
+  /*************************************** getHiddenCount ****************************************/
+  public int getHiddenCount()
+  {
+    // return total number of hidden indexes
+    return m_hidden;
+  }
+
+  /***************************************** getRunCount *****************************************/
+  public int getRunCount()
+  {
+    // return number of hidden runs
+    return m_count;
+  }
+
+  /******************************************* isHidden ******************************************/
+  public boolean isHidden( int index )
+  {
+    // return true if index is within a hidden run
+    return findRun( index ) >= 0;
+  }
+
+  /*************************************** firstVisibleFrom **************************************/
+  public int firstVisibleFrom( int index )
+  {
+    // return index if not hidden, otherwise index after the hidden run containing it
+    int run = findRun( index );
+    return run < 0 ? index : m_ends[run];
+  }
+
+  /*************************************** lastVisibleUpTo ***************************************/
+  public int lastVisibleUpTo( int index )
+  {
+    // return index if not hidden, otherwise index before the hidden run containing it
+    int run = findRun( index );
+    return run < 0 ? index : m_starts[run] - 1;
+  }
+
+  /********************************************* hide ********************************************/
+  public void hide( int index )
+  {
+    // add index to hidden runs, merging with neighbouring runs
+    int before = runAtOrBefore( index );
+    if ( before >= 0 && index < m_ends[before] )
+      return;
+
+    boolean joinBefore = before >= 0 && m_ends[before] == index;
+    boolean joinAfter = before + 1 < m_count && m_starts[before + 1] == index + 1;
+    if ( joinBefore && joinAfter )
+    {
+      m_ends[before] = m_ends[before + 1];
+      removeRun( before + 1 );
+    }
+    else if ( joinBefore )
+      m_ends[before]++;
+    else if ( joinAfter )
+      m_starts[before + 1]--;
+    else
+      insertRun( before + 1, index, index + 1 );
+
+    m_hidden++;
+  }
+
+  /********************************************* show ********************************************/
+  public void show( int index )
+  {
+    // remove index from hidden runs, splitting run if needed
+    int run = findRun( index );
+    if ( run < 0 )
+      return;
+
+    int start = m_starts[run];
+    int end = m_ends[run];
+    if ( start == index && end == index + 1 )
+      removeRun( run );
+    else if ( start == index )
+      m_starts[run]++;
+    else if ( end == index + 1 )
+      m_ends[run]--;
+    else
+    {
+      m_ends[run] = index;
+      insertRun( run + 1, index + 1, end );
+    }
+
+    m_hidden--;
+  }
+
+  /******************************************* truncate ******************************************/
+  public void truncate( int count )
+  {
+    // remove hidden indexes at or beyond count
+    while ( m_count > 0 && m_ends[m_count - 1] > count )
+    {
+      int last = m_count - 1;
+      int start = Math.max( m_starts[last], count );
+      m_hidden -= m_ends[last] - start;
+      if ( start == m_starts[last] )
+        m_count--;
+      else
+        m_ends[last] = count;
+    }
+  }
+
+  /******************************************* rebuild *******************************************/
+  public void rebuild( SizeExceptions exceptions )
+  {
+    // rebuild hidden runs from size exceptions (zero or negative sizes are hidden)
+    clear();
+    for ( int pos = 0; pos < exceptions.size(); pos++ )
+      if ( exceptions.valueAt( pos ) <= 0 )
+      {
+        int index = exceptions.keyAt( pos );
+        if ( m_count > 0 && m_ends[m_count - 1] == index )
+          m_ends[m_count - 1]++;
+        else
+          insertRun( m_count, index, index + 1 );
+        m_hidden++;
+      }
+  }
+
+  /******************************************* findRun *******************************************/
+  private int findRun( int index )
+  {
+    // return run containing index, or -1 if index not hidden
+    int run = runAtOrBefore( index );
+    return run >= 0 && index < m_ends[run] ? run : -1;
+  }
+
+  /**************************************** runAtOrBefore ****************************************/
+  private int runAtOrBefore( int index )
+  {
+    // return last run starting at or before index, or -1 if none
+    int pos = Arrays.binarySearch( m_starts, 0, m_count, index );
+    return pos >= 0 ? pos : -pos - 2;
+  }
+
+  /****************************************** insertRun ******************************************/
+  private void insertRun( int run, int start, int end )
+  {
+    // insert new run at specified position
+    if ( m_count == m_starts.length )
+    {
+      m_starts = Arrays.copyOf( m_starts, m_count * 2 );
+      m_ends = Arrays.copyOf( m_ends, m_count * 2 );
+    }
+    System.arraycopy( m_starts, run, m_starts, run + 1, m_count - run );
+    System.arraycopy( m_ends, run, m_ends, run + 1, m_count - run );
+    m_starts[run] = start;
+    m_ends[run] = end;
+    m_count++;
+  }
+
+  /****************************************** removeRun ******************************************/
+  private void removeRun( int run )
+  {
+    // remove run at specified position
+    m_count--;
+    System.arraycopy( m_starts, run + 1, m_starts, run, m_count - run );
+    System.arraycopy( m_ends, run + 1, m_ends, run, m_count - run );
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[m_count="
+        + m_count + " m_hidden=" + m_hidden + "]";
+  }
+
+}
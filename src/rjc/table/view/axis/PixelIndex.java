@@ -0,0 +1,98 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.axis;
+
+/*************************************************************************************************/
+/************ Fenwick tree of axis cell pixel sizes giving start pixels in O(log n) **************/
+/*************************************************************************************************/
+
+public class PixelIndex
+{
+  // tree holds differences from default pixel size, so cells without size exceptions cost nothing
+  private long[] m_tree;          // fenwick tree (1-based) of cell pixel size minus default pixels
+  private int    m_capacity;      // number of cells the tree can hold (power of two)
+  private int    m_defaultPixels; // default cell size in pixels
+
+  /**************************************** constructor ******************************************/
+  public PixelIndex( int count, int defaultPixels )
+  {
+    // create tree big enough for count cells all with default size
+    m_capacity = Integer.highestOneBit( Math.max( count, 1 ) );
+    if ( m_capacity < count )
+      m_capacity <<= 1;
+    m_tree = new long[m_capacity + 1];
+    m_defaultPixels = defaultPixels;
+  }
+
+  /***************************************** getCapacity *****************************************/
+  public int getCapacity()
+  {
+    // return number of cells the tree can hold
+    return m_capacity;
+  }
+
+  /*************************************** getDefaultPixels **************************************/
+  public int getDefaultPixels()
+  {
+    // return default cell size in pixels
+    return m_defaultPixels;
+  }
+
+  /********************************************* add *********************************************/
+  public void add( int index, long deltaPixels )
+  {
+    // adjust pixel size of cell index by delta
+    for ( int node = index + 1; node <= m_capacity; node += node & -node )
+      m_tree[node] += deltaPixels;
+  }
+
+  /****************************************** getStart *******************************************/
+  public long getStart( int index )
+  {
+    // return sum of pixel sizes of all cells before index
+    long pixels = (long) index * m_defaultPixels;
+    for ( int node = Math.min( index, m_capacity ); node > 0; node -= node & -node )
+      pixels += m_tree[node];
+
+    return pixels;
+  }
+
+  /****************************************** getIndex *******************************************/
+  public int getIndex( long position )
+  {
+    // return largest cell index with start at or before position, by descending the tree
+    int index = 0;
+    for ( int step = m_capacity; step > 0; step >>= 1 )
+    {
+      int node = index + step;
+      if ( node <= m_capacity )
+      {
+        long pixels = (long) step * m_defaultPixels + m_tree[node];
+        if ( pixels <= position )
+        {
+          index = node;
+          position -= pixels;
+        }
+      }
+    }
+
+    return index;
+  }
+
+}
@@ -0,0 +1,120 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.axis;
+
+/*************************************************************************************************/
+/*********** LRU of quantised per-zoom pixel indexes so recent zoom levels are instant ***********/
+/*************************************************************************************************/
+
+public class PixelIndexCache
+{
+  final static public int CAPACITY  = 4; // maximum number of zoom levels cached
+
+  // entries are kept most recently used first
+  private double[]        m_zooms   = new double[CAPACITY];     // zoom factor of each entry
+  private PixelIndex[]    m_indexes = new PixelIndex[CAPACITY]; // pixel index of each entry
+  private int             m_count;                              // number of entries
+
+  /******************************************** size *********************************************/
+  public int size()
+  {
+    // return number of cached zoom levels
+    return m_count;
+  }
+
+  /******************************************* zoomAt ********************************************/
+  public double zoomAt( int pos )
+  {
+    // return zoom factor of entry at position
+    return m_zooms[pos];
+  }
+
+  /******************************************* indexAt *******************************************/
+  public PixelIndex indexAt( int pos )
+  {
+    // return pixel index of entry at position
+    return m_indexes[pos];
+  }
+
+  /********************************************* get *********************************************/
+  public PixelIndex get( double zoom )
+  {
+    // return pixel index for zoom factor marking it most recently used, or null if not cached
+    for ( int pos = 0; pos < m_count; pos++ )
+      if ( m_zooms[pos] == zoom )
+      {
+        PixelIndex index = m_indexes[pos];
+        System.arraycopy( m_zooms, 0, m_zooms, 1, pos );
+        System.arraycopy( m_indexes, 0, m_indexes, 1, pos );
+        m_zooms[0] = zoom;
+        m_indexes[0] = index;
+        return index;
+      }
+
+    return null;
+  }
+
+  /********************************************* put *********************************************/
+  public void put( double zoom, PixelIndex index )
+  {
+    // add pixel index for zoom factor as most recently used, evicting least recently used if full
+    if ( m_count < CAPACITY )
+      m_count++;
+    System.arraycopy( m_zooms, 0, m_zooms, 1, m_count - 1 );
+    System.arraycopy( m_indexes, 0, m_indexes, 1, m_count - 1 );
+    m_zooms[0] = zoom;
+    m_indexes[0] = index;
+  }
+
+  /************************************* removeBelowCapacity *************************************/
+  public void removeBelowCapacity( int count )
+  {
+    // remove any pixel indexes that cannot hold count cells
+    int kept = 0;
+    for ( int pos = 0; pos < m_count; pos++ )
+      if ( m_indexes[pos].getCapacity() >= count )
+      {
+        m_zooms[kept] = m_zooms[pos];
+        m_indexes[kept++] = m_indexes[pos];
+      }
+
+    for ( int pos = kept; pos < m_count; pos++ )
+      m_indexes[pos] = null;
+    m_count = kept;
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all cached pixel indexes
+    for ( int pos = 0; pos < m_count; pos++ )
+      m_indexes[pos] = null;
+    m_count = 0;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[m_count="
+        + m_count + "]";
+  }
+
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.axis;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/*************************************************************************************************/
+/************* Axis cell index to size exceptions held in primitive sorted arrays ****************/
+/*************************************************************************************************/
+
+public class SizeExceptions
+{
+  private int[] m_indexes = new int[16]; // sorted cell indexes with size exceptions
+  private int[] m_sizes   = new int[16]; // size exception for each cell index (negative are hidden)
+  private int   m_count;                 // number of size exceptions
+
+  // value used to indicate no size exception for a cell index
+  final static public int NONE = Integer.MIN_VALUE + 1;
+
+  // functional interface to receive each cell index & size exception in index order
+  public interface IEntryConsumer
+  {
+    void accept( int index, int size );
+  }
+
+  /**************************************** constructor ******************************************/
+  public SizeExceptions()
+  {
+    // create empty size exceptions
+  }
+
+  /**************************************** constructor ******************************************/
+  public SizeExceptions( SizeExceptions other )
+  {
+    // create copy of other size exceptions
+    m_indexes = Arrays.copyOf( other.m_indexes, Math.max( other.m_count, 16 ) );
+    m_sizes = Arrays.copyOf( other.m_sizes, Math.max( other.m_count, 16 ) );
+    m_count = other.m_count;
+  }
+
+  /******************************************** size *********************************************/
+  public int size()
+  {
+    // return number of size exceptions
+    return m_count;
+  }
+
+  /******************************************* isEmpty *******************************************/
+  public boolean isEmpty()
+  {
+    // return true if there are no size exceptions
+    return m_count == 0;
+  }
+
+  /******************************************* indexOf *******************************************/
+  public int indexOf( int index )
+  {
+    // return position of cell index, or (-(insertion position) - 1) if not present
+    return Arrays.binarySearch( m_indexes, 0, m_count, index );
+  }
+
+  /******************************************* ceiling *******************************************/
+  public int ceiling( int index )
+  {
+    // return position of first cell index at or after specified index (equals size() if none)
+    int pos = indexOf( index );
+    return pos < 0 ? -pos - 1 : pos;
+  }
+
+  /******************************************** keyAt ********************************************/
+  public int keyAt( int pos )
+  {
+    // return cell index at position
+    return m_indexes[pos];
+  }
+
+  /******************************************* valueAt *******************************************/
+  public int valueAt( int pos )
+  {
+    // return size exception at position
+    return m_sizes[pos];
+  }
+
+  /***************************************** setValueAt ******************************************/
+  public void setValueAt( int pos, int size )
+  {
+    // set size exception at position
+    m_sizes[pos] = size;
+  }
+
+  /********************************************* get *********************************************/
+  public int get( int index, int defaultSize )
+  {
+    // return size exception for cell index, or default if no exception
+    int pos = indexOf( index );
+    return pos < 0 ? defaultSize : m_sizes[pos];
+  }
+
+  /********************************************* put *********************************************/
+  public int put( int index, int size, int defaultSize )
+  {
+    // set size exception for cell index, returning previous exception or default if none
+    int pos = indexOf( index );
+    if ( pos >= 0 )
+    {
+      int oldSize = m_sizes[pos];
+      m_sizes[pos] = size;
+      return oldSize;
+    }
+
+    // insert new exception keeping cell indexes sorted
+    pos = -pos - 1;
+    if ( m_count == m_indexes.length )
+    {
+      m_indexes = Arrays.copyOf( m_indexes, m_count * 2 );
+      m_sizes = Arrays.copyOf( m_sizes, m_count * 2 );
+    }
+    System.arraycopy( m_indexes, pos, m_indexes, pos + 1, m_count - pos );
+    System.arraycopy( m_sizes, pos, m_sizes, pos + 1, m_count - pos );
+    m_indexes[pos] = index;
+    m_sizes[pos] = size;
+    m_count++;
+    return defaultSize;
+  }
+
+  /******************************************* remove ********************************************/
+  public int remove( int index, int defaultSize )
+  {
+    // remove size exception for cell index, returning removed exception or default if none
+    int pos = indexOf( index );
+    if ( pos < 0 )
+      return defaultSize;
+
+    int oldSize = m_sizes[pos];
+    removeAt( pos );
+    return oldSize;
+  }
+
+  /****************************************** removeAt *******************************************/
+  public void removeAt( int pos )
+  {
+    // remove size exception at position
+    m_count--;
+    System.arraycopy( m_indexes, pos + 1, m_indexes, pos, m_count - pos );
+    System.arraycopy( m_sizes, pos + 1, m_sizes, pos, m_count - pos );
+  }
+
+  /******************************************** merge ********************************************/
+  public void merge( int[] sortedIndexes, IntUnaryOperator sizes )
+  {
+    // set exceptions for many cell indexes in one pass, removing exception where new size is NONE
+    int[] indexes = new int[Math.max( m_count + sortedIndexes.length, 16 )];
+    int[] values = new int[indexes.length];
+    int count = 0;
+    int pos = 0;
+
+    for ( int index : sortedIndexes )
+    {
+      // copy existing exceptions before this index, and skip existing exception being replaced
+      while ( pos < m_count && m_indexes[pos] < index )
+      {
+        indexes[count] = m_indexes[pos];
+        values[count++] = m_sizes[pos++];
+      }
+      if ( pos < m_count && m_indexes[pos] == index )
+        pos++;
+
+      int size = sizes.applyAsInt( index );
+      if ( size != NONE )
+      {
+        indexes[count] = index;
+        values[count++] = size;
+      }
+    }
+
+    // copy remaining existing exceptions
+    int remaining = m_count - pos;
+    System.arraycopy( m_indexes, pos, indexes, count, remaining );
+    System.arraycopy( m_sizes, pos, values, count, remaining );
+
+    m_indexes = indexes;
+    m_sizes = values;
+    m_count = count + remaining;
+  }
+
+  /****************************************** truncate *******************************************/
+  public void truncate( int count )
+  {
+    // remove all size exceptions for cell indexes at or beyond count
+    m_count = ceiling( count );
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all size exceptions
+    m_count = 0;
+  }
+
+  /******************************************* forEach *******************************************/
+  public void forEach( IEntryConsumer action )
+  {
+    // perform action for each size exception in cell index order
+    for ( int pos = 0; pos < m_count; pos++ )
+      action.accept( m_indexes[pos], m_sizes[pos] );
+  }
+
+  /****************************************** setSorted ******************************************/
+  public void setSorted( long[] entries, int count )
+  {
+    // replace all exceptions with entries of (long) index << 32 | size & 0xFFFFFFFFL sorted by index
+    m_indexes = new int[Math.max( count, 16 )];
+    m_sizes = new int[m_indexes.length];
+    m_count = count;
+    for ( int pos = 0; pos < count; pos++ )
+    {
+      m_indexes[pos] = (int) ( entries[pos] >> 32 );
+      m_sizes[pos] = (int) entries[pos];
+    }
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[m_count="
+        + m_count + "]";
+  }
+
+}
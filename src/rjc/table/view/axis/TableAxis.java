@@ -71,12 +71,13 @@ public class TableAxis extends AxisMap
       index = HEADER;
 
     int max = getCount();
-    for ( int check = index + 1; check < max; check++ )
-      if ( isIndexVisible( check ) )
-        return check;
-    for ( int check = index; check > HEADER; check-- )
-      if ( isIndexVisible( check ) )
-        return check;
+    int next = getHiddenRuns().firstVisibleFrom( index + 1 );
+    if ( next < max )
+      return next;
+
+    int previous = getHiddenRuns().lastVisibleUpTo( Math.min( index, max - 1 ) );
+    if ( previous > HEADER )
+      return previous;
 
     return INVALID;
   }
@@ -89,13 +90,21 @@ public class TableAxis extends AxisMap
     if ( index > max )
       index = max;
 
-    for ( int check = index - 1; check > HEADER; check-- )
-      if ( isIndexVisible( check ) )
-        return check;
-    for ( int check = index; check < max; check++ )
-      if ( isIndexVisible( check ) )
-        return check;
+    int previous = getHiddenRuns().lastVisibleUpTo( index - 1 );
+    if ( previous > HEADER )
+      return previous;
+
+    int next = getHiddenRuns().firstVisibleFrom( Math.max( index, FIRSTCELL ) );
+    if ( next < max )
+      return next;
 
     return INVALID;
   }
+
+  /***************************************** skipHidden ******************************************/
+  public int skipHidden( int index )
+  {
+    // return index if not hidden, otherwise index after the hidden range (may be beyond count)
+    return getHiddenRuns().firstVisibleFrom( index );
+  }
 }
@@ -18,9 +18,10 @@
 
 package rjc.table.view.cell;
 
-import javafx.geometry.Insets;
-import javafx.geometry.Pos;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
+import rjc.table.view.Colours;
 import rjc.table.view.TableView;
 import rjc.table.view.axis.TableAxis;
 
@@ -30,6 +31,22 @@ import rjc.table.view.axis.TableAxis;
 
 public class CellDrawer extends CellStyle
 {
+  private String    m_text;   // cell text prepared when checking if content within cell
+  private CellText  m_layout; // layout of prepared cell text (null if not prepared)
+  private DrawBatch m_batch;  // batch collecting unclipped draw operations (null to draw immediately)
+
+  // default pixel sizes below which body cells are drawn with less detail (no text or borders)
+  final static public int      DETAIL_PIXELS = 6;  // below this just background
+  final static public int      SHADE_PIXELS  = 3;  // below this background shaded by getShade
+  final static private Color[] SHADES        = new Color[32];
+
+  static
+  {
+    // prepare shades of heatmap from default fill to heatmap fill
+    for ( int index = 0; index < SHADES.length; index++ )
+      SHADES[index] = Colours.CELL_DEFAULT_FILL.interpolate( Colours.CELL_HEATMAP_FILL,
+          index / ( SHADES.length - 1.0 ) );
+  }
 
   /**************************************** constructor ******************************************/
   protected CellDrawer()
@@ -47,7 +64,37 @@ public class CellDrawer extends CellStyle
   /******************************************** draw *********************************************/
   public void draw()
   {
-    // clip drawing to cell boundaries
+    // body cells too small for text are drawn without getting their value or text
+    m_layout = null;
+    if ( view.getMetrics().isEnabled() )
+      view.getMetrics().countCell();
+    if ( viewColumn != TableAxis.HEADER && viewRow != TableAxis.HEADER
+        && ( w < getDetailPixels() || h < getDetailPixels() ) )
+    {
+      drawLowDetail();
+      return;
+    }
+
+    // body cells whose value is still loading are drawn as placeholder until value arrives
+    if ( viewColumn != TableAxis.HEADER && viewRow != TableAxis.HEADER
+        && !view.getData().isLoaded( getDataColumn(), getDataRow() ) )
+    {
+      drawPlaceholder();
+      return;
+    }
+
+    // draw without clipping if cell clear of headers and content within cell, as clip changes are costly
+    boolean clearOfHeaders = viewColumn == TableAxis.HEADER || viewRow == TableAxis.HEADER
+        || ( x >= view.getHeaderWidth() && y >= view.getHeaderHeight() );
+    if ( clearOfHeaders && isContentWithinCell() )
+    {
+      drawUnclipped();
+      return;
+    }
+
+    // clip drawing to cell boundaries, drawing immediately as clip cannot be batched
+    DrawBatch batch = m_batch;
+    m_batch = null;
     gc.save();
     gc.beginPath();
 
@@ -70,6 +117,132 @@ public class CellDrawer extends CellStyle
 
     // remove clip
     gc.restore();
+    m_batch = batch;
+  }
+
+  /***************************************** beginBatch ******************************************/
+  public void beginBatch( DrawBatch batch )
+  {
+    // collect unclipped draw operations in batch until endBatch, if drawing does not depend on draw order
+    m_batch = isOrderIndependent() ? batch : null;
+  }
+
+  /****************************************** endBatch *******************************************/
+  public void endBatch()
+  {
+    // emit collected draw operations grouped by paint & font
+    if ( m_batch != null )
+      m_batch.flush( gc );
+    m_batch = null;
+  }
+
+  /************************************* isOrderIndependent **************************************/
+  protected boolean isOrderIndependent()
+  {
+    // return true if cells look the same with all backgrounds, then all borders, then all text drawn
+    // (override to return true to allow batching if drawing methods overridden do not rely on order)
+    return false;
+  }
+
+  /***************************************** isDataText ******************************************/
+  @Override
+  protected boolean isDataText()
+  {
+    // return true as getData not overridden, unless by subclass (override to return true if value unchanged)
+    return getClass() == CellDrawer.class;
+  }
+
+  /************************************** isDrawnWithinCell **************************************/
+  protected boolean isDrawnWithinCell()
+  {
+    // return true if drawing methods draw nothing outside cell except laid out text, so clipping can be skipped
+    // (only known for this class, so override to return true if subclass drawing also keeps within cell)
+    return getClass() == CellDrawer.class;
+  }
+
+  /************************************* isContentWithinCell *************************************/
+  protected boolean isContentWithinCell()
+  {
+    // return true if content will be drawn within cell, so drawing is always clipped unless opted in
+    if ( !isDrawnWithinCell() )
+      return false;
+
+    m_text = getText();
+    m_layout = view.getLayoutCache().getLayout( m_text, getZoomFont(), getZoomTextInsets(), getTextAlignment(), w, h );
+    return m_layout.isWithinCell();
+  }
+
+  /**************************************** drawLowDetail ****************************************/
+  protected void drawLowDetail()
+  {
+    // fill visible part of cell (not under headers) with background, or heatmap shade if cell very small
+    Paint paint = getBackgroundPaint();
+    int shadePixels = getShadePixels();
+    if ( w < shadePixels || h < shadePixels )
+    {
+      double shade = getShade();
+      if ( shade >= 0.0 )
+        paint = SHADES[(int) ( Math.min( shade, 1.0 ) * ( SHADES.length - 1 ) + 0.5 )];
+    }
+
+    fillVisible( paint, x, y, w, h );
+  }
+
+  /*************************************** drawPlaceholder ***************************************/
+  protected void drawPlaceholder()
+  {
+    // fill visible part of cell with background and a bar standing in for value still loading
+    // (drawn immediately as overlapping fills of different paints cannot be batched)
+    DrawBatch batch = m_batch;
+    m_batch = null;
+    fillVisible( getBackgroundPaint(), x, y, w, h );
+    fillVisible( Colours.CELL_PLACEHOLDER, x + w * 0.1, y + h * 0.35, w * 0.6, h * 0.3 );
+    if ( x >= view.getHeaderWidth() && y >= view.getHeaderHeight() )
+      drawBorder();
+    m_batch = batch;
+  }
+
+  /***************************************** fillVisible *****************************************/
+  private void fillVisible( Paint paint, double fx, double fy, double fw, double fh )
+  {
+    // fill part of rectangle not under headers, without clipping so can be batched
+    int headerWidth = view.getHeaderWidth();
+    int headerHeight = view.getHeaderHeight();
+    double cx = fx > headerWidth ? fx : headerWidth;
+    double cy = fy > headerHeight ? fy : headerHeight;
+    double cw = fw + fx - cx;
+    double ch = fh + fy - cy;
+    if ( cw <= 0.0 || ch <= 0.0 )
+      return;
+
+    if ( m_batch != null )
+      m_batch.fillRect( paint, cx, cy, cw, ch );
+    else
+    {
+      gc.setFill( paint );
+      gc.fillRect( cx, cy, cw, ch );
+    }
+  }
+
+  /****************************************** getShade *******************************************/
+  protected double getShade()
+  {
+    // return heatmap shade between 0 and 1 for very small cell, or NaN for plain background (override to use)
+    return Double.NaN;
+  }
+
+  /*************************************** getDetailPixels ***************************************/
+  protected int getDetailPixels()
+  {
+    // return pixel size below which body cells are drawn as just background (override to change for view)
+    return DETAIL_PIXELS;
+  }
+
+  /*************************************** getShadePixels ****************************************/
+  protected int getShadePixels()
+  {
+    // return pixel size below which body cells are drawn as heatmap shade (override to change for view)
+    return SHADE_PIXELS;
   }
 
   /**************************************** drawUnclipped ****************************************/
@@ -85,38 +258,58 @@ public class CellDrawer extends CellStyle
   protected void drawBackground()
   {
     // draw cell background
-    gc.setFill( getBackgroundPaint() );
-    gc.fillRect( x, y, w, h );
+    if ( m_batch != null )
+      m_batch.fillRect( getBackgroundPaint(), x, y, w, h );
+    else
+    {
+      gc.setFill( getBackgroundPaint() );
+      gc.fillRect( x, y, w, h );
+    }
   }
 
   /***************************************** drawBorder ******************************************/
   protected void drawBorder()
   {
     // draw cell border
-    gc.setStroke( getBorderPaint() );
-    gc.strokeLine( x + w - 0.5, y + 0.5, x + w - 0.5, y + h - 0.5 );
-    gc.strokeLine( x + 0.5, y + h - 0.5, x + w - 1.5, y + h - 0.5 );
+    if ( m_batch != null )
+    {
+      Paint paint = getBorderPaint();
+      m_batch.strokeLine( paint, x + w - 0.5, y + 0.5, x + w - 0.5, y + h - 0.5 );
+      m_batch.strokeLine( paint, x + 0.5, y + h - 0.5, x + w - 1.5, y + h - 0.5 );
+    }
+    else
+    {
+      gc.setStroke( getBorderPaint() );
+      gc.strokeLine( x + w - 0.5, y + 0.5, x + w - 0.5, y + h - 0.5 );
+      gc.strokeLine( x + 0.5, y + h - 0.5, x + w - 1.5, y + h - 0.5 );
+    }
   }
 
   /**************************************** drawContent ******************************************/
   protected void drawContent()
   {
-    // draw cell contents
-    drawText( getText() );
+    // draw cell contents, using text prepared when checking if content within cell
+    drawText( m_layout == null ? getText() : m_text );
   }
 
   /****************************************** drawText *******************************************/
   protected void drawText( String cellText )
   {
-    // get text inserts, font, alignment, and convert string into text lines
-    Insets insets = getZoomTextInsets();
+    // get font, and convert string into text lines (reusing layout if already prepared for this text)
     Font font = getZoomFont();
-    Pos alignment = getTextAlignment();
-    CellText formattedText = new CellText( cellText, font, insets, alignment, w, h );
+    var layout = m_layout != null && cellText == m_text ? m_layout
+        : view.getLayoutCache().getLayout( cellText, font, getZoomTextInsets(), getTextAlignment(), w, h );
+    var lines = layout.getLines();
 
     // draw the text lines in cell
+    if ( m_batch != null )
+    {
+      Paint paint = getTextPaint();
+      lines.forEach( line -> m_batch.fillText( font, paint, line.txt, x + line.x, y + line.y ) );
+      return;
+    }
     gc.setFont( font );
     gc.setFill( getTextPaint() );
-    formattedText.getLines().forEach( line -> gc.fillText( line.txt, x + line.x, y + line.y ) );
+    lines.forEach( line -> gc.fillText( line.txt, x + line.x, y + line.y ) );
   }
 }
@@ -190,7 +190,7 @@ public class CellSelection implements ISignal
     int top = axis.getFirstVisible();
     int bottom = axis.getLastVisible();
 
-    for ( int rowIndex = top; rowIndex <= bottom; rowIndex++ )
+    for ( int rowIndex = top; rowIndex <= bottom; rowIndex = axis.skipHidden( rowIndex + 1 ) )
       rows: if ( axis.isIndexVisible( rowIndex ) )
       {
         for ( var area : m_selected )
@@ -213,7 +213,7 @@ public class CellSelection implements ISignal
     int left = axis.getFirstVisible();
     int right = axis.getLastVisible();
 
-    for ( int columnIndex = left; columnIndex <= right; columnIndex++ )
+    for ( int columnIndex = left; columnIndex <= right; columnIndex = axis.skipHidden( columnIndex + 1 ) )
       columns: if ( axis.isIndexVisible( columnIndex ) )
       {
         for ( var area : m_selected )
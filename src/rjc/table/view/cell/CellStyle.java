@@ -24,6 +24,7 @@ import javafx.scene.paint.Paint;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontPosture;
 import javafx.scene.text.FontWeight;
+import rjc.table.data.IDataText;
 import rjc.table.view.Colours;
 import rjc.table.view.axis.TableAxis;
 
@@ -39,9 +40,29 @@ public class CellStyle extends CellLocation
   /****************************************** getText ********************************************/
   protected String getText()
   {
-    // return cell value as string
-    Object value = getData();
-    return value == null ? null : value.toString();
+    // return cell value as string (columnar data formats without boxing), timed if rendering metrics enabled
+    var metrics = view.getMetrics();
+    long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+    String text;
+    if ( viewColumn > TableAxis.HEADER && viewRow > TableAxis.HEADER && isDataText()
+        && view.getData() instanceof IDataText data )
+      text = data.getText( getDataColumn(), getDataRow() );
+    else
+    {
+      Object value = getData();
+      text = value == null ? null : value.toString();
+    }
+    if ( metrics.isEnabled() )
+      metrics.addValueTime( System.nanoTime() - start );
+    return text;
+  }
+
+  /***************************************** isDataText ******************************************/
+  protected boolean isDataText()
+  {
+    // return true if text can be read directly from IDataText data, only if getData not overridden, so
+    // text is from getData unless subclass overrides this to say getData returns the data value unchanged
+    return false;
   }
 
   /************************************** getTextAlignment ***************************************/
@@ -89,22 +110,15 @@ public class CellStyle extends CellLocation
   /************************************** getZoomTextInsets **************************************/
   public Insets getZoomTextInsets()
   {
-    // get text inserts adjusted for zoom
-    Insets insets = getTextInsets();
-    double zoom = view.getZoom().get();
-
-    if ( zoom != 1.0 )
-      insets = new Insets( insets.getTop() * zoom, insets.getRight() * zoom, insets.getBottom() * zoom,
-          insets.getLeft() * zoom );
-
-    return insets;
+    // get text inserts adjusted for zoom (shared from view style cache)
+    return view.getStyleCache().getInsets( getTextInsets() );
   }
 
   /**************************************** getZoomFont ******************************************/
   public Font getZoomFont()
   {
-    // get font adjusted for zoom
-    return Font.font( getTextFamily(), getTextWeight(), getTextPosture(), getTextSize() * view.getZoom().get() );
+    // get font adjusted for zoom (shared from view style cache)
+    return view.getStyleCache().getFont( getTextFamily(), getTextWeight(), getTextPosture(), getTextSize() );
   }
 
   /*************************************** getBorderPaint ****************************************/
@@ -19,6 +19,7 @@
 package rjc.table.view.cell;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import javafx.geometry.Bounds;
 import javafx.geometry.HPos;
@@ -34,13 +35,23 @@ import javafx.scene.text.Text;
 
 public class CellText
 {
-  // structure that contains one line of text to be drawn in cell
-  public class Line
+  // immutable structure that contains one line of text to be drawn in cell (can be shared via cache)
+  public static class Line
   {
-    public String txt;
-    public double x;
-    public double y;
-    public double w;
+    final public String txt;
+    final public double x;
+    final public double y;
+    final public double w;
+
+    /**************************************** constructor ****************************************/
+    public Line( String txt, double x, double y, double w )
+    {
+      // create immutable text line
+      this.txt = txt;
+      this.x = x;
+      this.y = y;
+      this.w = w;
+    }
 
     @Override
     public String toString()
@@ -49,86 +60,229 @@ public class CellText
     }
   }
 
-  private ArrayList<Line> m_lines  = new ArrayList<Line>();
-  private Text            m_node   = new Text();
-  private Bounds          m_bounds = null;
-  private int             m_lineHeight;
+  private ArrayList<String> m_texts      = new ArrayList<>(); // text of each line before positioning
+  private ArrayList<Double> m_widths     = new ArrayList<>(); // width of each line before positioning
+  private List<Line>        m_lines      = List.of();
+  private Text              m_node;                            // only created if measurer cannot measure text
+  private Bounds            m_bounds     = null;
+  private int               m_lineHeight;
+  private boolean           m_withinCell = true;              // true if all lines are within cell bounds
+
+  static final String       ELLIPSIS     = "...";             // ellipsis to show text has been truncated
+
+  // measurer for fitting text quickly, with Text node used when it cannot measure the text
+  private static ITextMeasurer m_measurer = new GlyphAdvanceMeasurer();
 
-  static final String     ELLIPSIS = "...";                // ellipsis to show text has been truncated
+  // layout with no lines for null text, and count of text measurer changes so caches discard old layouts
+  final static CellText       EMPTY = new CellText();
+  private static volatile int m_measurerChanges;
+
+  /**************************************** constructor ******************************************/
+  private CellText()
+  {
+    // create layout with no lines
+  }
 
   /**************************************** constructor ******************************************/
   public CellText( String cellText, Font font, Insets insets, Pos alignment, double width, double height )
   {
-    // prepare Text node for measuring string boundaries
-    m_node.setFont( font );
+    // reduce available space by insets
+    double cellWidth = width;
+    double cellHeight = height;
     width = width - insets.getLeft() - insets.getRight();
     height = height - insets.getTop() - insets.getBottom();
 
-    // determine how text needs to be split into lines
-    while ( cellText != null )
+    // determine how text needs to be split into lines, using measurer prefix widths if possible
+    double[] prefix = cellText == null ? null : m_measurer.getPrefixWidths( cellText, font );
+    if ( prefix != null )
+      fitMeasured( cellText, font, width, height, prefix );
+    else
     {
-      m_node.setText( cellText );
-      m_bounds = m_node.getBoundsInLocal();
-      m_lineHeight = (int) ( m_bounds.getHeight() + 0.5 );
-
-      // if text fits width, add to lines and exit loop
-      if ( m_bounds.getWidth() <= width )
-      {
-        // text fits in width
-        Line line = new Line();
-        line.txt = cellText;
-        line.w = m_bounds.getWidth();
-        m_lines.add( line );
-        break;
-      }
-
-      // if last line, truncate this line
-      if ( m_lineHeight * ( 2 + m_lines.size() ) > height )
+      // prepare Text node for measuring string boundaries
+      m_node = new Text();
+      m_node.setFont( font );
+      while ( cellText != null )
       {
-        truncateEllipsis( cellText, width );
-        break;
+        m_node.setText( cellText );
+        m_bounds = m_node.getBoundsInLocal();
+        m_lineHeight = (int) ( m_bounds.getHeight() + 0.5 );
+
+        // if text fits width, add to lines and exit loop
+        if ( m_bounds.getWidth() <= width )
+        {
+          // text fits in width
+          addLine( cellText, m_bounds.getWidth() );
+          break;
+        }
+
+        // if last line, truncate this line
+        if ( m_lineHeight * ( 2 + m_texts.size() ) > height )
+        {
+          truncateEllipsis( cellText, width );
+          break;
+        }
+
+        // not last line, so truncate at space if can
+        cellText = truncateLine( cellText, width );
       }
-
-      // not last line, so truncate at space if can
-      cellText = truncateLine( cellText, width );
     }
 
     // position the lines depending on the cell text alignment
     if ( m_bounds != null )
     {
-      int numberOfLines = m_lines.size();
+      int numberOfLines = m_texts.size();
+      Line[] lines = new Line[numberOfLines];
       for ( int index = 0; index < numberOfLines; index++ )
       {
-        Line line = m_lines.get( index );
+        double w = m_widths.get( index );
+        double x = 0.0;
+        double y = 0.0;
 
         // horizontal left
         if ( alignment.getHpos() == HPos.LEFT )
-          line.x = insets.getLeft();
+          x = insets.getLeft();
 
         // horizontal centre
         if ( alignment.getHpos() == HPos.CENTER )
-          line.x = insets.getLeft() + ( width - line.w ) / 2.0;
+          x = insets.getLeft() + ( width - w ) / 2.0;
 
         // horizontal right
         if ( alignment.getHpos() == HPos.RIGHT )
-          line.x = insets.getLeft() + width - line.w;
+          x = insets.getLeft() + width - w;
 
         // vertical top
         if ( alignment.getVpos() == VPos.TOP )
-          line.y = insets.getTop() + index * m_lineHeight - m_bounds.getMinY() - m_bounds.getMaxY() - 1.0;
+          y = insets.getTop() + index * m_lineHeight - m_bounds.getMinY() - m_bounds.getMaxY() - 1.0;
 
         // vertical centre
         if ( alignment.getVpos() == VPos.CENTER )
-          line.y = insets.getTop() + index * m_lineHeight + ( height - numberOfLines * m_lineHeight ) / 2.0
+          y = insets.getTop() + index * m_lineHeight + ( height - numberOfLines * m_lineHeight ) / 2.0
               - m_bounds.getMinY();
 
         // vertical bottom
         if ( alignment.getVpos() == VPos.BOTTOM || alignment.getVpos() == VPos.BASELINE )
-          line.y = insets.getTop() + index * m_lineHeight + height - numberOfLines * m_lineHeight - m_bounds.getMinY();
+          y = insets.getTop() + index * m_lineHeight + height - numberOfLines * m_lineHeight - m_bounds.getMinY();
+
+        lines[index] = new Line( m_texts.get( index ), x, y, w );
+        m_withinCell = m_withinCell && x >= 0.0 && x + w <= cellWidth && y + m_bounds.getMinY() >= 0.0
+            && y + m_bounds.getMaxY() <= cellHeight;
+      }
+      m_lines = List.of( lines );
+    }
+
+    // release working storage as layouts are kept in cache
+    m_texts = null;
+    m_widths = null;
+    m_node = null;
+  }
+
+  /*************************************** setTextMeasurer ***************************************/
+  public static void setTextMeasurer( ITextMeasurer measurer )
+  {
+    // set measurer used to fit text into cells, layouts cached using previous measurer are discarded
+    m_measurer = measurer;
+    m_measurerChanges++;
+  }
+
+  /************************************* getMeasurerChanges **************************************/
+  static int getMeasurerChanges()
+  {
+    // return number of times text measurer changed, so layout caches can discard layouts using previous measurer
+    return m_measurerChanges;
+  }
+
+  /*************************************** getTextMeasurer ***************************************/
+  public static ITextMeasurer getTextMeasurer()
+  {
+    // return measurer used to fit text into cells
+    return m_measurer;
+  }
+
+  /***************************************** fitMeasured *****************************************/
+  private void fitMeasured( String cellText, Font font, double width, double height, double[] prefix )
+  {
+    // split text into lines using cumulative widths, so break points found by binary search
+    m_bounds = m_measurer.getLineBounds( font );
+    m_lineHeight = (int) ( m_bounds.getHeight() + 0.5 );
+    int length = cellText.length();
+    int start = 0;
+
+    while ( true )
+    {
+      // if remaining text fits width, add to lines and exit loop
+      double remaining = prefix[length] - prefix[start];
+      if ( remaining <= width )
+      {
+        addLine( start == 0 ? cellText : cellText.substring( start ), remaining );
+        break;
       }
+
+      // if last line, truncate this line
+      if ( m_lineHeight * ( 2 + m_texts.size() ) > height )
+      {
+        ellipsisMeasured( cellText, font, start, width, prefix );
+        break;
+      }
+
+      // not last line, so truncate at space if can, otherwise show as much of word as possible
+      int end = lastFitting( prefix, start, length, prefix[start] + width );
+      int space = cellText.lastIndexOf( ' ', end );
+      if ( space < start )
+      {
+        ellipsisMeasured( cellText, font, start, width, prefix );
+        space = cellText.indexOf( ' ', end );
+        if ( space == -1 )
+          break;
+      }
+      else
+        addLine( cellText.substring( start, space ), prefix[space] - prefix[start] );
+      start = space + 1;
     }
   }
 
+  /************************************** ellipsisMeasured ***************************************/
+  private void ellipsisMeasured( String cellText, Font font, int start, double maxWidth, double[] prefix )
+  {
+    // if no usable width, don't add any line
+    if ( maxWidth < 1.0 )
+      return;
+
+    // show as much of text from start as fits with ellipsis added, or just ellipsis if nothing fits
+    double[] ellipsis = m_measurer.getPrefixWidths( ELLIPSIS, font );
+    double ellipsisWidth = ellipsis == null ? 0.0 : ellipsis[ELLIPSIS.length()];
+    int end = lastFitting( prefix, start, cellText.length(), prefix[start] + maxWidth - ellipsisWidth );
+    if ( end > start )
+      addLine( cellText.substring( start, end ) + ELLIPSIS, prefix[end] - prefix[start] + ellipsisWidth );
+    else
+      addLine( ELLIPSIS, ellipsisWidth );
+  }
+
+  /***************************************** lastFitting *****************************************/
+  private static int lastFitting( double[] prefix, int start, int end, double limit )
+  {
+    // return largest index between start and end (inclusive) with cumulative width not above limit
+    int low = start;
+    int high = end;
+    while ( low < high )
+    {
+      int mid = ( low + high + 1 ) >>> 1;
+      if ( prefix[mid] <= limit )
+        low = mid;
+      else
+        high = mid - 1;
+    }
+
+    return low;
+  }
+
+  /******************************************* addLine *******************************************/
+  private void addLine( String txt, double w )
+  {
+    // add line of text with its width, to be positioned once all lines known
+    m_texts.add( txt );
+    m_widths.add( w );
+  }
+
   /**************************************** truncateLine *****************************************/
   private String truncateLine( String cellText, double maxWidth )
   {
@@ -166,10 +320,8 @@ public class CellText
     }
 
     // space found so break there instead
-    Line line = new Line();
-    line.w = getWidth( cellText, space );
-    line.txt = m_node.getText();
-    m_lines.add( line );
+    double w = getWidth( cellText, space );
+    addLine( m_node.getText(), w );
     return cellText.substring( space + 1 );
   }
 
@@ -205,10 +357,7 @@ public class CellText
       }
       while ( testWidth <= maxWidth );
 
-      Line line = new Line();
-      line.txt = cellText.substring( 0, --testLen ) + ELLIPSIS;
-      line.w = okayWidth;
-      m_lines.add( line );
+      addLine( cellText.substring( 0, --testLen ) + ELLIPSIS, okayWidth );
     }
     else
     {
@@ -225,10 +374,7 @@ public class CellText
         testWidth = m_node.getBoundsInLocal().getWidth();
       }
 
-      Line line = new Line();
-      line.txt = m_node.getText();
-      line.w = testWidth;
-      m_lines.add( line );
+      addLine( m_node.getText(), testWidth );
     }
   }
 
@@ -244,10 +390,17 @@ public class CellText
   }
 
   /****************************************** getLines *******************************************/
-  public ArrayList<Line> getLines()
+  public List<Line> getLines()
   {
-    // return array of text lines
+    // return immutable list of text lines
     return m_lines;
   }
 
+  /**************************************** isWithinCell *****************************************/
+  public boolean isWithinCell()
+  {
+    // return true if text lines are drawn wholly within cell bounds, so drawing needs no clipping
+    return m_withinCell;
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,238 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.cell;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Paint;
+import javafx.scene.text.Font;
+
+/*************************************************************************************************/
+/**************** Draw operations collected then emitted grouped by paint & font *****************/
+/*************************************************************************************************/
+
+public class DrawBatch
+{
+  // operations sharing same paint (and font for text) with coordinates held in a primitive array
+  private static class Group
+  {
+    private Paint    m_paint;
+    private Font     m_font;
+    private double[] m_coords = new double[64]; // four coordinates per operation
+    private String[] m_texts;                   // text per operation (text groups only)
+    private int      m_count;                   // number of operations
+
+    /**************************************** constructor ****************************************/
+    private Group( Paint paint, Font font )
+    {
+      // create empty group for paint and font
+      m_paint = paint;
+      m_font = font;
+      if ( font != null )
+        m_texts = new String[16];
+    }
+
+    /******************************************** add ********************************************/
+    private void add( double a, double b, double c, double d )
+    {
+      // add operation coordinates
+      if ( m_count * 4 == m_coords.length )
+        m_coords = Arrays.copyOf( m_coords, m_coords.length * 2 );
+      int pos = m_count++ * 4;
+      m_coords[pos] = a;
+      m_coords[pos + 1] = b;
+      m_coords[pos + 2] = c;
+      m_coords[pos + 3] = d;
+    }
+  }
+
+  // packed line sort keys hold fixed coordinate, start coordinate and operation number in 20 bits each
+  final static private int  KEY_BITS   = 20;
+  final static private int  KEY_OFFSET = 1 << KEY_BITS - 1;
+  final static private long KEY_MASK   = ( 1L << KEY_BITS ) - 1L;
+
+  private ArrayList<Group>  m_fills    = new ArrayList<>(); // background rectangles per paint
+  private ArrayList<Group>  m_lines    = new ArrayList<>(); // border lines per paint
+  private ArrayList<Group>  m_texts    = new ArrayList<>(); // text per font & paint
+  private long[]            m_keys     = new long[64];      // workspace for sorting lines
+
+  /****************************************** fillRect *******************************************/
+  public void fillRect( Paint paint, double x, double y, double w, double h )
+  {
+    // record filled rectangle
+    group( m_fills, paint, null ).add( x, y, w, h );
+  }
+
+  /***************************************** strokeLine ******************************************/
+  public void strokeLine( Paint paint, double x1, double y1, double x2, double y2 )
+  {
+    // record stroked line, horizontal and vertical lines are later joined into long strokes where they meet
+    group( m_lines, paint, null ).add( x1, y1, x2, y2 );
+  }
+
+  /****************************************** fillText *******************************************/
+  public void fillText( Font font, Paint paint, String text, double x, double y )
+  {
+    // record filled text
+    Group group = group( m_texts, paint, font );
+    if ( group.m_count == group.m_texts.length )
+      group.m_texts = Arrays.copyOf( group.m_texts, group.m_count * 2 );
+    group.m_texts[group.m_count] = text;
+    group.add( x, y, 0.0, 0.0 );
+  }
+
+  /******************************************* isEmpty *******************************************/
+  public boolean isEmpty()
+  {
+    // return true if no operations recorded
+    return m_fills.isEmpty() && m_lines.isEmpty() && m_texts.isEmpty();
+  }
+
+  /******************************************** flush ********************************************/
+  public void flush( GraphicsContext gc )
+  {
+    // emit all fills, then all lines, then all text, setting paint & font once per group
+    for ( Group group : m_fills )
+    {
+      gc.setFill( group.m_paint );
+      for ( int pos = 0; pos < group.m_count * 4; pos += 4 )
+        gc.fillRect( group.m_coords[pos], group.m_coords[pos + 1], group.m_coords[pos + 2],
+            group.m_coords[pos + 3] );
+    }
+
+    for ( Group group : m_lines )
+    {
+      gc.setStroke( group.m_paint );
+      strokeJoined( gc, group );
+    }
+
+    for ( Group group : m_texts )
+    {
+      gc.setFont( group.m_font );
+      gc.setFill( group.m_paint );
+      for ( int op = 0; op < group.m_count; op++ )
+        gc.fillText( group.m_texts[op], group.m_coords[op * 4], group.m_coords[op * 4 + 1] );
+    }
+
+    clear();
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // discard all recorded operations
+    m_fills.clear();
+    m_lines.clear();
+    m_texts.clear();
+  }
+
+  /**************************************** strokeJoined *****************************************/
+  private void strokeJoined( GraphicsContext gc, Group group )
+  {
+    // sort horizontal & vertical lines by row/column then start, so touching lines become one long stroke
+    // (lines of same paint meeting end to end, or with single pixel gap left for a cell's right border)
+    int count = 0;
+    if ( m_keys.length < group.m_count )
+      m_keys = new long[group.m_count];
+    for ( int op = 0; op < group.m_count; op++ )
+    {
+      int pos = op * 4;
+      double x1 = group.m_coords[pos];
+      double y1 = group.m_coords[pos + 1];
+      double x2 = group.m_coords[pos + 2];
+      double y2 = group.m_coords[pos + 3];
+      long key = y1 == y2 ? key( 0, y1, x1, op ) : x1 == x2 ? key( 1, x1, y1, op ) : -1L;
+      if ( key < 0L || x1 > x2 || y1 > y2 )
+        gc.strokeLine( x1, y1, x2, y2 );
+      else
+        m_keys[count++] = key;
+    }
+    Arrays.sort( m_keys, 0, count );
+
+    // stroke each run of joined lines
+    int index = 0;
+    while ( index < count )
+    {
+      int pos = (int) ( m_keys[index] & KEY_MASK ) * 4;
+      boolean horizontal = m_keys[index] >>> KEY_BITS * 3 == 0L;
+      double fixed = horizontal ? group.m_coords[pos + 1] : group.m_coords[pos];
+      double start = horizontal ? group.m_coords[pos] : group.m_coords[pos + 1];
+      double end = horizontal ? group.m_coords[pos + 2] : group.m_coords[pos + 3];
+      double gap = horizontal ? 2.0 : 1.0;
+      index++;
+      while ( index < count )
+      {
+        int next = (int) ( m_keys[index] & KEY_MASK ) * 4;
+        if ( m_keys[index] >>> KEY_BITS * 3 != m_keys[index - 1] >>> KEY_BITS * 3 )
+          break;
+        double nextFixed = horizontal ? group.m_coords[next + 1] : group.m_coords[next];
+        double nextStart = horizontal ? group.m_coords[next] : group.m_coords[next + 1];
+        if ( nextFixed != fixed || nextStart > end + gap )
+          break;
+        end = Math.max( end, horizontal ? group.m_coords[next + 2] : group.m_coords[next + 3] );
+        index++;
+      }
+
+      if ( horizontal )
+        gc.strokeLine( start, fixed, end, fixed );
+      else
+        gc.strokeLine( fixed, start, fixed, end );
+    }
+  }
+
+  /********************************************* key *********************************************/
+  private static long key( int direction, double fixed, double start, int op )
+  {
+    // return sort key for line, or -1 if coordinates or operation number out of packable range
+    long f = (long) Math.floor( fixed * 2.0 ) + KEY_OFFSET;
+    long s = (long) Math.floor( start * 2.0 ) + KEY_OFFSET;
+    if ( f < 0L || f > KEY_MASK || s < 0L || s > KEY_MASK || op > KEY_MASK )
+      return -1L;
+
+    return (long) direction << KEY_BITS * 3 | f << KEY_BITS * 2 | s << KEY_BITS | op;
+  }
+
+  /******************************************** group ********************************************/
+  private static Group group( ArrayList<Group> groups, Paint paint, Font font )
+  {
+    // return group for paint & font, checking most recently added first as cells often share styles
+    for ( int index = groups.size() - 1; index >= 0; index-- )
+    {
+      Group group = groups.get( index );
+      if ( group.m_paint.equals( paint ) && ( font == null || font.equals( group.m_font ) ) )
+        return group;
+    }
+
+    var group = new Group( paint, font );
+    groups.add( group );
+    return group;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[fills="
+        + m_fills.size() + " lines=" + m_lines.size() + " texts=" + m_texts.size() + "]";
+  }
+
+}
\ No newline at end of file
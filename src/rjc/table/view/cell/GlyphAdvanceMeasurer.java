@@ -0,0 +1,137 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.cell;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import rjc.table.Utils;
+
+/*************************************************************************************************/
+/************ Text measurer summing cached per-font glyph advances for simple scripts ************/
+/*************************************************************************************************/
+
+public class GlyphAdvanceMeasurer implements ITextMeasurer
+{
+  // least-recently-used map of fonts to cached measurements (zooming creates a font per zoom level)
+  private static class FontMap<V> extends LinkedHashMap<Font, V>
+  {
+    private static final long serialVersionUID = Utils.VERSION.hashCode();
+
+    /**************************************** constructor ****************************************/
+    private FontMap()
+    {
+      // create access ordered map
+      super( 16, 0.75f, true );
+    }
+
+    /************************************* removeEldestEntry *************************************/
+    @Override
+    protected boolean removeEldestEntry( Map.Entry<Font, V> eldest )
+    {
+      // remove least recently used font when too many fonts
+      return size() > FONTS_MAX;
+    }
+  }
+
+  // characters from SIMPLE_FIRST up to (not including) SIMPLE_LIMIT are measured from cached advances,
+  // others (controls, combining marks, complex & right-to-left scripts, surrogates) need a Text node
+  final static public int   SIMPLE_FIRST = 0x0020;
+  final static public int   SIMPLE_LIMIT = 0x0300;
+  final static public int   FONTS_MAX    = 32;                // maximum number of fonts with cached measurements
+
+  private Text              m_node       = new Text();        // node for measuring single characters
+  private FontMap<double[]> m_advances   = new FontMap<>();   // advance of each simple character per font
+  private FontMap<Bounds>   m_lineBounds = new FontMap<>();   // logical line bounds per font
+
+  /*************************************** getPrefixWidths ***************************************/
+  @Override
+  public synchronized double[] getPrefixWidths( String text, Font font )
+  {
+    // return cumulative widths in one pass summing cached advances, or null if text not simple script
+    double[] advances = getAdvances( font );
+    double[] prefix = new double[text.length() + 1];
+    for ( int index = 0; index < text.length(); index++ )
+    {
+      char ch = text.charAt( index );
+      if ( ch < SIMPLE_FIRST || ch >= SIMPLE_LIMIT )
+        return null;
+
+      double advance = advances[ch - SIMPLE_FIRST];
+      if ( Double.isNaN( advance ) )
+        advance = advances[ch - SIMPLE_FIRST] = measure( String.valueOf( ch ), font ).getWidth();
+      prefix[index + 1] = prefix[index] + advance;
+    }
+
+    return prefix;
+  }
+
+  /**************************************** getLineBounds ****************************************/
+  @Override
+  public synchronized Bounds getLineBounds( Font font )
+  {
+    // return cached logical bounds of a line of text in font
+    var bounds = m_lineBounds.get( font );
+    if ( bounds == null )
+    {
+      bounds = measure( "X", font );
+      m_lineBounds.put( font, bounds );
+    }
+
+    return bounds;
+  }
+
+  /***************************************** getAdvances *****************************************/
+  private double[] getAdvances( Font font )
+  {
+    // return advances for simple characters in font (NaN where not yet measured)
+    var advances = m_advances.get( font );
+    if ( advances == null )
+    {
+      advances = new double[SIMPLE_LIMIT - SIMPLE_FIRST];
+      Arrays.fill( advances, Double.NaN );
+      m_advances.put( font, advances );
+    }
+
+    return advances;
+  }
+
+  /******************************************* measure *******************************************/
+  private Bounds measure( String text, Font font )
+  {
+    // return logical bounds of text in font using Text node
+    m_node.setFont( font );
+    m_node.setText( text );
+    return m_node.getBoundsInLocal();
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[fonts="
+        + m_advances.size() + "]";
+  }
+
+}
\ No newline at end of file
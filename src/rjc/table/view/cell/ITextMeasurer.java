@@ -0,0 +1,36 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.cell;
+
+import javafx.geometry.Bounds;
+import javafx.scene.text.Font;
+
+/*************************************************************************************************/
+/************* Interface for measuring cell text widths used to fit text into cells **************/
+/*************************************************************************************************/
+
+public interface ITextMeasurer
+{
+  // return cumulative widths (element i is width of first i characters) of text in font,
+  // or null if text cannot be measured this way (CellText then measures using a Text node)
+  public double[] getPrefixWidths( String text, Font font );
+
+  // return logical bounds of a single line of text in font (only height & vertical position used)
+  public Bounds getLineBounds( Font font );
+}
\ No newline at end of file
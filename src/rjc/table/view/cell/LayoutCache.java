@@ -0,0 +1,176 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.cell;
+
+import java.util.LinkedHashMap;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.text.Font;
+
+/*************************************************************************************************/
+/**** Per-view bounded LRU cache of cell text layouts so redrawn cells need no text measuring ****/
+/*************************************************************************************************/
+
+public class LayoutCache
+{
+  // key identifying a cell text layout in the layout cache
+  private static class LayoutKey
+  {
+    private String m_text;
+    private Font   m_font;
+    private Insets m_insets;
+    private Pos    m_alignment;
+    private double m_width;
+    private double m_height;
+    private int    m_hash;
+
+    /**************************************** constructor ****************************************/
+    private LayoutKey( String text, Font font, Insets insets, Pos alignment, double width, double height )
+    {
+      // create layout key with hash calculated without boxing or varargs array as created for every cell drawn
+      m_text = text;
+      m_font = font;
+      m_insets = insets;
+      m_alignment = alignment;
+      m_width = width;
+      m_height = height;
+      int hash = text.hashCode();
+      hash = 31 * hash + font.hashCode();
+      hash = 31 * hash + insets.hashCode();
+      hash = 31 * hash + alignment.hashCode();
+      hash = 31 * hash + Double.hashCode( width );
+      m_hash = 31 * hash + Double.hashCode( height );
+    }
+
+    /***************************************** hashCode ******************************************/
+    @Override
+    public int hashCode()
+    {
+      // return pre-calculated hash
+      return m_hash;
+    }
+
+    /****************************************** equals *******************************************/
+    @Override
+    public boolean equals( Object obj )
+    {
+      // return true if key for same text, font, insets, alignment & cell size
+      return obj instanceof LayoutKey key && m_hash == key.m_hash && m_width == key.m_width
+          && m_height == key.m_height && m_alignment == key.m_alignment && m_text.equals( key.m_text )
+          && m_font.equals( key.m_font ) && m_insets.equals( key.m_insets );
+    }
+  }
+
+  // default minimum capacity, fitted to hold layouts of all visible cells with headroom so full redraws are hits
+  final static public int                    DEFAULT_CAPACITY = 4096;
+  final static public int                    HEADROOM         = 2;
+
+  private LinkedHashMap<LayoutKey, CellText> m_layouts        = new LinkedHashMap<>( 256, 0.75f, true );
+  private int                                m_minimum        = DEFAULT_CAPACITY; // capacity never fitted below
+  private int                                m_capacity       = DEFAULT_CAPACITY;
+  private int                                m_measurerChanges;  // text measurer changes when last cleared
+  private long                               m_layoutCount;      // layouts computed as not found in cache
+
+  /****************************************** getLayout ******************************************/
+  public CellText getLayout( String cellText, Font font, Insets insets, Pos alignment, double width, double height )
+  {
+    // return text layout from cache, laying out and caching if not already cached
+    if ( cellText == null )
+      return CellText.EMPTY;
+
+    var key = new LayoutKey( cellText, font, insets, alignment, width, height );
+    synchronized ( this )
+    {
+      // layouts cached using a previous text measurer are discarded
+      if ( m_measurerChanges != CellText.getMeasurerChanges() )
+      {
+        m_measurerChanges = CellText.getMeasurerChanges();
+        m_layouts.clear();
+      }
+
+      var layout = m_layouts.get( key );
+      if ( layout == null )
+      {
+        layout = new CellText( cellText, font, insets, alignment, width, height );
+        m_layouts.put( key, layout );
+        m_layoutCount++;
+        if ( m_layouts.size() > m_capacity )
+          m_layouts.pollFirstEntry();
+      }
+      return layout;
+    }
+  }
+
+  /***************************************** fitCapacity *****************************************/
+  public synchronized void fitCapacity( int cells )
+  {
+    // set capacity to hold layouts for specified number of visible cells with headroom for scrolling, but not
+    // below minimum, so capacity grown when zoomed out shrinks again when zoomed in
+    m_capacity = (int) Math.max( m_minimum, Math.min( (long) cells * HEADROOM, Integer.MAX_VALUE ) );
+    trim();
+  }
+
+  /***************************************** setCapacity *****************************************/
+  public synchronized void setCapacity( int capacity )
+  {
+    // set minimum & current maximum number of cached layouts, discarding least recently used layouts beyond it
+    m_minimum = Math.max( capacity, 0 );
+    m_capacity = m_minimum;
+    trim();
+  }
+
+  /***************************************** getCapacity *****************************************/
+  public synchronized int getCapacity()
+  {
+    // return maximum number of cached layouts
+    return m_capacity;
+  }
+
+  /******************************************** trim *********************************************/
+  private void trim()
+  {
+    // discard least recently used layouts beyond capacity
+    while ( m_layouts.size() > m_capacity )
+      m_layouts.pollFirstEntry();
+  }
+
+  /*************************************** getLayoutCount ****************************************/
+  public synchronized long getLayoutCount()
+  {
+    // return number of text layouts computed because not found in cache
+    return m_layoutCount;
+  }
+
+  /******************************************** clear ********************************************/
+  public synchronized void clear()
+  {
+    // discard all cached layouts
+    m_layouts.clear();
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public synchronized String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[layouts="
+        + m_layouts.size() + " capacity=" + m_capacity + " computed=" + m_layoutCount + "]";
+  }
+}
\ No newline at end of file
@@ -90,7 +90,7 @@ public class MousePosition extends ObservablePosition
 
     // check if mouse moved outside current column
     int viewColumn = getColumn();
-    int width = m_view.getTableWidth();
+    long width = m_view.getTableWidth();
     int header = m_view.getHeaderWidth();
 
     if ( m_x < m_cellXstart || m_x >= m_cellXend )
@@ -109,7 +109,7 @@ public class MousePosition extends ObservablePosition
       }
       else if ( m_x >= width )
       {
-        m_cellXstart = width;
+        m_cellXstart = (int) width;
         m_cellXend = Integer.MAX_VALUE;
         viewColumn = m_view.getData().getColumnCount() - 1;
       }
@@ -123,7 +123,7 @@ public class MousePosition extends ObservablePosition
 
     // check if mouse moved outside current row
     int viewRow = getRow();
-    int height = m_view.getTableHeight();
+    long height = m_view.getTableHeight();
     header = m_view.getHeaderHeight();
 
     if ( m_y < m_cellYstart || m_y >= m_cellYend )
@@ -142,7 +142,7 @@ public class MousePosition extends ObservablePosition
       }
       else if ( m_y >= height )
       {
-        m_cellYstart = height;
+        m_cellYstart = (int) height;
         m_cellYend = Integer.MAX_VALUE;
         viewRow = m_view.getData().getRowCount() - 1;
       }
@@ -0,0 +1,161 @@
+/**************************************************************************
+ *  Copyright (C) 2025 by Richard Crook                                   *
+ *  https://github.com/dazzle50/JTableFX                                  *
+ *                                                                        *
+ *  This program is free software: you can redistribute it and/or modify  *
+ *  it under the terms of the GNU General Public License as published by  *
+ *  the Free Software Foundation, either version 3 of the License, or     *
+ *  (at your option) any later version.                                   *
+ *                                                                        *
+ *  This program is distributed in the hope that it will be useful,       *
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of        *
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the         *
+ *  GNU General Public License for more details.                          *
+ *                                                                        *
+ *  You should have received a copy of the GNU General Public License     *
+ *  along with this program.  If not, see http://www.gnu.org/licenses/    *
+ **************************************************************************/
+
+package rjc.table.view.cell;
+
+import java.util.HashMap;
+import java.util.Objects;
+
+import javafx.geometry.Insets;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import rjc.table.signal.IListener;
+import rjc.table.signal.ISignal;
+import rjc.table.signal.ObservableDouble.ReadOnlyDouble;
+
+/*************************************************************************************************/
+/************ Per-view cache of zoomed fonts & insets shared by all cells being drawn ************/
+/*************************************************************************************************/
+
+public class StyleCache implements IListener
+{
+  // key identifying a font before zoom is applied
+  private static class FontKey
+  {
+    private String      m_family;
+    private FontWeight  m_weight;
+    private FontPosture m_posture;
+    private double      m_size;
+
+    /**************************************** constructor ****************************************/
+    private FontKey( String family, FontWeight weight, FontPosture posture, double size )
+    {
+      // create font key
+      m_family = family;
+      m_weight = weight;
+      m_posture = posture;
+      m_size = size;
+    }
+
+    /***************************************** hashCode ******************************************/
+    @Override
+    public int hashCode()
+    {
+      // return hash from font family, weight, posture & size
+      return Objects.hash( m_family, m_weight, m_posture, m_size );
+    }
+
+    /****************************************** equals *******************************************/
+    @Override
+    public boolean equals( Object obj )
+    {
+      // return true if key for same font family, weight, posture & size
+      return obj instanceof FontKey key && matches( key.m_family, key.m_weight, key.m_posture, key.m_size );
+    }
+
+    /****************************************** matches ******************************************/
+    private boolean matches( String family, FontWeight weight, FontPosture posture, double size )
+    {
+      // return true if key is for specified font family, weight, posture & size
+      return m_size == size && m_weight == weight && m_posture == posture && m_family.equals( family );
+    }
+  }
+
+  private ReadOnlyDouble          m_zoom;                       // zoom applied to fonts & insets
+  private HashMap<FontKey, Font>  m_fonts  = new HashMap<>();   // zoomed fonts
+  private HashMap<Insets, Insets> m_insets = new HashMap<>();   // zoomed insets
+
+  private FontKey                 m_lastKey;                    // most recently requested font key
+  private Font                    m_lastFont;                   // most recently requested zoomed font
+
+  /**************************************** constructor ******************************************/
+  public StyleCache( ReadOnlyDouble zoomProperty )
+  {
+    // create cache that clears itself when zoom changes
+    m_zoom = zoomProperty;
+    m_zoom.addListener( this );
+  }
+
+  /******************************************** slot *********************************************/
+  @Override
+  public void slot( ISignal sender, Object... msg )
+  {
+    // zoom has changed so cached fonts & insets no longer valid
+    clear();
+  }
+
+  /******************************************** clear ********************************************/
+  public void clear()
+  {
+    // remove all cached fonts & insets
+    m_fonts.clear();
+    m_insets.clear();
+    m_lastKey = null;
+    m_lastFont = null;
+  }
+
+  /******************************************* getFont *******************************************/
+  public Font getFont( String family, FontWeight weight, FontPosture posture, double size )
+  {
+    // return shared zoomed font, checking most recent first as usually all cells use same font
+    if ( m_lastKey != null && m_lastKey.matches( family, weight, posture, size ) )
+      return m_lastFont;
+
+    var key = new FontKey( family, weight, posture, size );
+    var font = m_fonts.get( key );
+    if ( font == null )
+    {
+      font = Font.font( family, weight, posture, size * m_zoom.get() );
+      m_fonts.put( key, font );
+    }
+
+    m_lastKey = key;
+    m_lastFont = font;
+    return font;
+  }
+
+  /****************************************** getInsets ******************************************/
+  public Insets getInsets( Insets insets )
+  {
+    // return shared zoomed insets
+    double zoom = m_zoom.get();
+    if ( zoom == 1.0 )
+      return insets;
+
+    var zoomed = m_insets.get( insets );
+    if ( zoomed == null )
+    {
+      zoomed = new Insets( insets.getTop() * zoom, insets.getRight() * zoom, insets.getBottom() * zoom,
+          insets.getLeft() * zoom );
+      m_insets.put( insets, zoomed );
+    }
+
+    return zoomed;
+  }
+
+  /****************************************** toString *******************************************/
+  @Override
+  public String toString()
+  {
+    // return as string
+    return getClass().getSimpleName() + "@" + Integer.toHexString( System.identityHashCode( this ) ) + "[fonts="
+        + m_fonts.size() + " insets=" + m_insets.size() + "]";
+  }
+
+}
\ No newline at end of file
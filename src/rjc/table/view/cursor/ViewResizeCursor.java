@@ -36,7 +36,7 @@ public class ViewResizeCursor extends ViewBaseCursor
   static TableScrollBar         m_scrollbar;  // horizontal or vertical scroll-bar
 
   private static int            m_coordinate; // latest coordinate used when table scrolled
-  private static int            m_offset;     // resize coordinate offset
+  private static long           m_offset;     // resize coordinate offset
   private static int            m_before;     // number of positions being resized before current position
   private static ICommandResize m_command;    // command for undo-stack
 
@@ -59,7 +59,7 @@ public class ViewResizeCursor extends ViewBaseCursor
       selected.add( index );
 
     // count visible selected sections before and adjust offset
-    m_offset = m_axis.getStartPixel( index + 1, 0 );
+    m_offset = m_axis.getStartPosition( index + 1 );
     m_before = 0;
     for ( int section : selected )
       if ( section <= index && m_axis.isIndexVisible( section ) )
@@ -97,7 +97,7 @@ public class ViewResizeCursor extends ViewBaseCursor
   private int getSelectedIndex( int coordinate )
   {
     // determine resize index from mouse coordinate
-    int scroll = (int) m_scrollbar.getValue();
+    long scroll = m_scrollbar.getScroll();
     int index = m_axis.getIndexFromCoordinate( coordinate, scroll );
     int indexStart = m_axis.getStartPixel( index, scroll );
     int indexEnd = m_axis.getStartPixel( index + 1, scroll );
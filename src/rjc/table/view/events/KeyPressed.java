@@ -235,7 +235,7 @@ public class KeyPressed implements EventHandler<KeyEvent>
     checkSelectToFocus();
     var scrollbar = m_view.getVerticalScrollBar();
     scrollbar.finishAnimation();
-    int value = (int) scrollbar.getValue();
+    long value = scrollbar.getScroll();
 
     if ( scrollbar.isVisible() && value < scrollbar.getMax() )
     {
@@ -248,8 +248,8 @@ public class KeyPressed implements EventHandler<KeyEvent>
       // ensure scroll down at least one row
       if ( newTopRow == m_view.getRowIndex( header ) )
         newTopRow = axis.getNextVisible( newTopRow );
-      int newValue = newTopRow < TableAxis.AFTER ? axis.getStartPixel( newTopRow, 0 ) - header
-          : (int) scrollbar.getMax();
+      long newValue = newTopRow < TableAxis.AFTER ? axis.getStartPosition( newTopRow ) - header
+          : (long) scrollbar.getMax();
 
       // determine new position for select cell
       m_view.getSelectCell().moveToVisible();
@@ -280,7 +280,7 @@ public class KeyPressed implements EventHandler<KeyEvent>
     checkSelectToFocus();
     var scrollbar = m_view.getVerticalScrollBar();
     scrollbar.finishAnimation();
-    int value = (int) scrollbar.getValue();
+    long value = scrollbar.getScroll();
 
     if ( scrollbar.isVisible() && value > scrollbar.getMin() )
     {
@@ -289,7 +289,7 @@ public class KeyPressed implements EventHandler<KeyEvent>
       int height = (int) m_view.getCanvas().getHeight();
       int header = m_view.getHeaderHeight();
       int oldTop = m_view.getRowIndex( header );
-      int newValue = Utils.clamp( value - height + header, (int) scrollbar.getMin(), (int) scrollbar.getMax() );
+      long newValue = Utils.clamp( value - height + header, (long) scrollbar.getMin(), (long) scrollbar.getMax() );
       m_view.getSelectCell().moveToVisible();
       int row = m_view.getSelectCell().getRow();
       int selectY = ( m_view.getRowStartY( row ) + m_view.getRowStartY( row + 1 ) ) / 2;
@@ -301,7 +301,7 @@ public class KeyPressed implements EventHandler<KeyEvent>
       // ensure scroll up at least one row
       if ( oldTop == newTop )
         newTop = axis.getPreviousVisible( newTop );
-      newValue = axis.getStartPixel( newTop, 0 ) - header;
+      newValue = axis.getStartPosition( newTop ) - header;
 
       // determine new position for select cell
       int newRow = m_view.getRowIndex( selectY );